@@ -0,0 +1,125 @@
+package com.shotaroi.sportsbook;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shotaroi.sportsbook.betting.config.BettingProperties;
+import com.shotaroi.sportsbook.betting.entity.Bet;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.betting.repository.CustomerRepository;
+import com.shotaroi.sportsbook.betting.service.BetPlacementMetrics;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.betting.service.CustomerCache;
+import com.shotaroi.sportsbook.betting.service.PlaceBetResponseCodec;
+import com.shotaroi.sportsbook.common.idempotency.IdempotencyCache;
+import com.shotaroi.sportsbook.common.idempotency.IdempotencyProperties;
+import com.shotaroi.sportsbook.common.idempotency.IdempotencyService;
+import com.shotaroi.sportsbook.common.repository.IdempotencyKeyRepository;
+import com.shotaroi.sportsbook.ledger.repository.LedgerBalanceRepository;
+import com.shotaroi.sportsbook.ledger.repository.LedgerEntryRepository;
+import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.ledger.service.WalletCache;
+import com.shotaroi.sportsbook.risk.config.RiskProperties;
+import com.shotaroi.sportsbook.risk.repository.LimitRepository;
+import com.shotaroi.sportsbook.risk.service.ExposureBook;
+import com.shotaroi.sportsbook.risk.service.ExposureContentionTracker;
+import com.shotaroi.sportsbook.risk.service.LimitCache;
+import com.shotaroi.sportsbook.risk.service.RiskEngineService;
+import com.shotaroi.sportsbook.risk.service.RiskReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Wires the bet-placement services by hand over in-memory repository stubs, so benchmarks
+ * measure CPU and allocation only: no Spring context, no transactions, no database.
+ * Exposure uses the IN_MEMORY book; application logging is raised to WARN.
+ */
+public final class BenchmarkFixture {
+
+    public final RiskEngineService riskEngineService;
+    public final RiskReservationService riskReservationService;
+    public final LedgerService ledgerService;
+    public final IdempotencyService idempotencyService;
+    public final BetService betService;
+
+    public BenchmarkFixture() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.shotaroi")).setLevel(Level.WARN);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RiskProperties riskProperties = new RiskProperties(
+                RiskProperties.ReservationMode.IN_MEMORY, new RiskProperties.Book(200, 500),
+                new RiskProperties.Contention(10, 3600, 15000));
+        LimitCache limitCache = new LimitCache(stub(LimitRepository.class, Map.of(
+                "findAll", args -> List.of())));
+        ExposureBook exposureBook = new ExposureBook(null, null, riskProperties);
+        riskReservationService = new RiskReservationService(
+                null, exposureBook, limitCache,
+                new ExposureContentionTracker(riskProperties, meterRegistry), riskProperties, meterRegistry);
+        riskEngineService = new RiskEngineService(riskReservationService, limitCache);
+
+        WalletCache walletCache = new WalletCache();
+        walletCache.addAfterCommit(List.of(1L), "SEK");
+        AtomicLong ids = new AtomicLong();
+        ledgerService = new LedgerService(
+                stub(LedgerEntryRepository.class, Map.of("save", args -> args[0])),
+                walletCache,
+                stub(LedgerBalanceRepository.class, Map.of(
+                        "findBalance", args -> Optional.of(new BigDecimal("1000000000.00")),
+                        "addToBalance", args -> 1,
+                        "debitIfCovered", args -> 1,
+                        "withdrawIfCovered", args -> 1)),
+                null);
+
+        idempotencyService = new IdempotencyService(
+                stub(IdempotencyKeyRepository.class, Map.of(
+                        "findByScopeAndScopeIdAndIdempotencyKey", args -> Optional.empty(),
+                        "insertIfAbsent", args -> 1)),
+                new ObjectMapper().findAndRegisterModules(),
+                new IdempotencyCache(new IdempotencyProperties(
+                        new IdempotencyProperties.Cache(true, 100_000, 600),
+                        new IdempotencyProperties.Filter(false, 1_000_000, 0.01),
+                        new IdempotencyProperties.Retention(false, Map.of(), Duration.ofDays(7), 1000, 100, 60_000)), null, null),
+                List.of(new PlaceBetResponseCodec()));
+
+        betService = new BetService(
+                stub(BetRepository.class, Map.of("save", args -> {
+                    Bet bet = (Bet) args[0];
+                    bet.setId(ids.incrementAndGet());
+                    return bet;
+                })),
+                null,
+                new CustomerCache(new BettingProperties(new BettingProperties.CustomerCache(true, 100_000, false)),
+                        stub(CustomerRepository.class, Map.of("existsById", args -> true)), null),
+                riskEngineService,
+                riskReservationService,
+                ledgerService,
+                idempotencyService,
+                new BetPlacementMetrics(meterRegistry));
+    }
+
+    /** Repository stub: named methods answer from the map, anything else fails loudly. */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "Stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.shotaroi.sportsbook.betting.service;
+
+import com.shotaroi.sportsbook.BenchmarkFixture;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetResponse;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.dto.RiskDecisionResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bet-placement hot path over in-memory stubs (see {@link BenchmarkFixture}).
+ * Run with -prof gc to see allocation per bet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BetPlacementBenchmark {
+
+    private BenchmarkFixture fixture;
+    private PlaceBetRequest request;
+    private ExposureKey key;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchmarkFixture();
+        request = new PlaceBetRequest(1L, "evt-bench", MarketType.MATCH_WINNER, Selection.HOME,
+                new BigDecimal("2.150"), new BigDecimal("25.00"));
+        key = new ExposureKey(request.eventId(), request.marketType(), request.selection());
+    }
+
+    @Benchmark
+    public RiskDecisionResult riskEvaluate() {
+        return fixture.riskEngineService.evaluate(request.eventId(), request.marketType(), request.selection(),
+                request.stake(), new BigDecimal("28.75"));
+    }
+
+    @Benchmark
+    public long riskEvaluateMinor() {
+        return fixture.riskEngineService.evaluateMinor(key, 2500, 2875);
+    }
+
+    @Benchmark
+    public PlaceBetResponse doPlaceBet() {
+        return fixture.betService.doPlaceBet(request);
+    }
+}
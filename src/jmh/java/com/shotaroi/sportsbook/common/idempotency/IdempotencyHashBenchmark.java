@@ -0,0 +1,40 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import com.shotaroi.sportsbook.BenchmarkFixture;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request fingerprinting done by IdempotencyService before every placement: the field
+ * fingerprint used for PlaceBetRequest against the JSON + SHA-256 hash used for other types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdempotencyHashBenchmark {
+
+    private IdempotencyService idempotencyService;
+    private PlaceBetRequest request;
+
+    @Setup
+    public void setUp() {
+        idempotencyService = new BenchmarkFixture().idempotencyService;
+        request = new PlaceBetRequest(1L, "evt-bench", MarketType.MATCH_WINNER, Selection.HOME,
+                new BigDecimal("2.150"), new BigDecimal("25.00"));
+    }
+
+    @Benchmark
+    public String hashPlaceBetRequest() {
+        return idempotencyService.hashRequest(request);
+    }
+
+    @Benchmark
+    public String jsonHashPlaceBetRequest() {
+        return idempotencyService.jsonHash(request);
+    }
+}
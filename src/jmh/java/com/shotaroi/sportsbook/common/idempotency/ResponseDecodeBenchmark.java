@@ -0,0 +1,43 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetResponse;
+import com.shotaroi.sportsbook.betting.service.PlaceBetResponseCodec;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.RiskDecision;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a stored bet placement response on replay: binary codec vs JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseDecodeBenchmark {
+
+    private final PlaceBetResponseCodec codec = new PlaceBetResponseCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private byte[] bytes;
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        PlaceBetResponse response = new PlaceBetResponse(123456L, BetStatus.PLACED,
+                new BigDecimal("25.00"), new BigDecimal("53.75"), RiskDecision.ACCEPT);
+        bytes = BinaryCodecs.encode(codec, response);
+        json = objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public PlaceBetResponse decodeBinary() {
+        return BinaryCodecs.decode(codec, bytes);
+    }
+
+    @Benchmark
+    public PlaceBetResponse decodeJson() throws Exception {
+        return objectMapper.readValue(json, PlaceBetResponse.class);
+    }
+}
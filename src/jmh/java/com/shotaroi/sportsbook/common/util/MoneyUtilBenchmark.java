@@ -0,0 +1,26 @@
+package com.shotaroi.sportsbook.common.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyUtilBenchmark {
+
+    private BigDecimal stake;
+    private BigDecimal odds;
+
+    @Setup
+    public void setUp() {
+        stake = new BigDecimal("25.00");
+        odds = new BigDecimal("2.150");
+    }
+
+    @Benchmark
+    public BigDecimal potentialPayout() {
+        return MoneyUtil.potentialPayout(stake, odds);
+    }
+}
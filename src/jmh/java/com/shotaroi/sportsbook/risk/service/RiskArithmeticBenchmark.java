@@ -0,0 +1,77 @@
+package com.shotaroi.sportsbook.risk.service;
+
+import com.shotaroi.sportsbook.common.util.FixedPointMoney;
+import com.shotaroi.sportsbook.common.util.MoneyUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The money arithmetic of one risk evaluation that hits the liability limit (payout,
+ * liability, limit checks, stake cap, payout of the capped stake): BigDecimal as
+ * RiskEngineService did it before fixed point, against {@link FixedPointMoney}.
+ * Both return the accepted stake in minor units. Run with -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RiskArithmeticBenchmark {
+
+    private BigDecimal stake;
+    private BigDecimal odds;
+    private BigDecimal maxStakePerBet;
+    private BigDecimal maxLiability;
+    private BigDecimal currentLiability;
+
+    private long stakeMinor;
+    private long oddsFixed;
+    private long maxStakePerBetMinor;
+    private long maxLiabilityMinor;
+    private long currentLiabilityMinor;
+
+    @Setup
+    public void setUp() {
+        stake = new BigDecimal("25.00");
+        odds = new BigDecimal("2.150");
+        maxStakePerBet = new BigDecimal("1000.00");
+        maxLiability = new BigDecimal("5000.00");
+        currentLiability = new BigDecimal("4985.40");
+
+        stakeMinor = MoneyUtil.toMinorUnits(stake);
+        oddsFixed = FixedPointMoney.toOdds(odds);
+        maxStakePerBetMinor = MoneyUtil.toMinorUnits(maxStakePerBet);
+        maxLiabilityMinor = MoneyUtil.toMinorUnits(maxLiability);
+        currentLiabilityMinor = MoneyUtil.toMinorUnits(currentLiability);
+    }
+
+    @Benchmark
+    public long bigDecimal() {
+        BigDecimal potentialLiability = MoneyUtil.potentialPayout(stake, odds).subtract(stake);
+        BigDecimal accepted = stake;
+        if (stake.compareTo(maxStakePerBet) > 0) {
+            accepted = maxStakePerBet;
+        } else if (currentLiability.add(potentialLiability).compareTo(maxLiability) > 0) {
+            BigDecimal remaining = maxLiability.subtract(currentLiability);
+            BigDecimal oddsMinusOne = potentialLiability.divide(stake, 6, RoundingMode.HALF_UP);
+            accepted = remaining.divide(oddsMinusOne, 2, RoundingMode.DOWN).min(maxStakePerBet);
+        }
+        BigDecimal payout = MoneyUtil.potentialPayout(accepted, odds);
+        return payout.subtract(accepted).signum() > 0 ? MoneyUtil.toMinorUnits(accepted) : 0;
+    }
+
+    @Benchmark
+    public long fixedPoint() {
+        long potentialLiability = FixedPointMoney.liability(stakeMinor, oddsFixed);
+        long accepted = stakeMinor;
+        if (stakeMinor > maxStakePerBetMinor) {
+            accepted = maxStakePerBetMinor;
+        } else if (currentLiabilityMinor + potentialLiability > maxLiabilityMinor) {
+            long remaining = maxLiabilityMinor - currentLiabilityMinor;
+            accepted = Math.min(FixedPointMoney.mulDivDown(remaining, stakeMinor, potentialLiability), maxStakePerBetMinor);
+        }
+        long payout = FixedPointMoney.payout(accepted, oddsFixed);
+        return payout - accepted > 0 ? accepted : 0;
+    }
+}
@@ -1,12 +1,20 @@
 package com.shotaroi.sportsbook;
 
+import com.shotaroi.sportsbook.betting.config.BettingProperties;
+import com.shotaroi.sportsbook.common.idempotency.IdempotencyProperties;
+import com.shotaroi.sportsbook.common.web.BulkheadProperties;
+import com.shotaroi.sportsbook.risk.config.RiskProperties;
 import com.shotaroi.sportsbook.security.JwtProperties;
+import com.shotaroi.sportsbook.settlement.config.SettlementProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableScheduling
+@EnableConfigurationProperties({JwtProperties.class, RiskProperties.class, SettlementProperties.class,
+        IdempotencyProperties.class, BulkheadProperties.class, BettingProperties.class})
 public class SportsbookApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,21 @@
+package com.shotaroi.sportsbook.betting.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "betting")
+public record BettingProperties(
+        @DefaultValue CustomerCache customerCache
+) {
+
+    /**
+     * In-memory set of customer ids known to exist, so bet placement skips the existence
+     * query. Beyond maxEntries the least recently used ids go; with preload, the most recent
+     * maxEntries customers are loaded at startup.
+     */
+    public record CustomerCache(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("100000") int maxEntries,
+            @DefaultValue("false") boolean preload
+    ) {}
+}
@@ -2,6 +2,8 @@ package com.shotaroi.sportsbook.betting.controller;
 
 import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
 import com.shotaroi.sportsbook.betting.dto.PlaceBetResponse;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipRequest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipResponse;
 import com.shotaroi.sportsbook.betting.entity.Bet;
 import com.shotaroi.sportsbook.betting.service.BetService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +33,16 @@ public class BetController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/slip")
+    @Operation(summary = "Place a bet slip", description = "Up to 100 single bets for one customer, one decision per bet. Idempotency-Key header required")
+    public ResponseEntity<PlaceBetSlipResponse> placeSlip(
+            @RequestHeader(value = "Idempotency-Key", required = true) String idempotencyKey,
+            @Valid @RequestBody PlaceBetSlipRequest request
+    ) {
+        PlaceBetSlipResponse response = betService.placeSlip(request, idempotencyKey);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get bet by ID")
     public ResponseEntity<Bet> getBet(@PathVariable Long id) {
@@ -2,6 +2,8 @@ package com.shotaroi.sportsbook.betting.dto;
 
 import com.shotaroi.sportsbook.common.domain.MarketType;
 import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.idempotency.Fingerprint;
+import com.shotaroi.sportsbook.common.idempotency.Fingerprintable;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -15,4 +17,15 @@ public record PlaceBetRequest(
         @NotNull Selection selection,
         @NotNull @DecimalMin("1.001") BigDecimal odds,
         @NotNull @Positive BigDecimal stake
-) {}
+) implements Fingerprintable {
+
+    @Override
+    public void fingerprint(Fingerprint fingerprint) {
+        fingerprint.putLong(customerId)
+                .putString(eventId)
+                .putEnum(marketType)
+                .putEnum(selection)
+                .putDecimal(odds)
+                .putDecimal(stake);
+    }
+}
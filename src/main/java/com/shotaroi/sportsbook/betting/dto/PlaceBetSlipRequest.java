@@ -0,0 +1,44 @@
+package com.shotaroi.sportsbook.betting.dto;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.idempotency.Fingerprint;
+import com.shotaroi.sportsbook.common.idempotency.Fingerprintable;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A bet slip: several single bets for one customer, placed in one transaction.
+ */
+public record PlaceBetSlipRequest(
+        @NotNull Long customerId,
+        @NotEmpty @Size(max = 100) List<@Valid SlipBet> bets
+) implements Fingerprintable {
+
+    public record SlipBet(
+            @NotNull String eventId,
+            @NotNull MarketType marketType,
+            @NotNull Selection selection,
+            @NotNull @DecimalMin("1.001") BigDecimal odds,
+            @NotNull @Positive BigDecimal stake
+    ) {}
+
+    @Override
+    public void fingerprint(Fingerprint fingerprint) {
+        fingerprint.putLong(customerId).putLong((long) bets.size());
+        for (SlipBet bet : bets) {
+            fingerprint.putString(bet.eventId())
+                    .putEnum(bet.marketType())
+                    .putEnum(bet.selection())
+                    .putDecimal(bet.odds())
+                    .putDecimal(bet.stake());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.shotaroi.sportsbook.betting.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One response per slip bet, in request order; rejected bets have no betId.
+ */
+public record PlaceBetSlipResponse(
+        List<PlaceBetResponse> bets,
+        BigDecimal totalStake
+) {}
@@ -0,0 +1,58 @@
+package com.shotaroi.sportsbook.betting.repository;
+
+import com.shotaroi.sportsbook.betting.entity.Bet;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch insert for bet slips. Bet uses IDENTITY ids, which stops Hibernate from
+ * batching inserts, so ids are drawn from the bets sequence in one query and the rows
+ * are inserted as one batch. Runs in the caller's transaction.
+ */
+@Repository
+public class BetBatchWriter {
+
+    private static final String NEXT_IDS_SQL = "SELECT nextval('bets_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_BET_SQL = """
+            INSERT INTO bets (id, customer_id, event_id, market_type, selection, odds, stake, status,
+                              potential_payout, placed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BetBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Insert the bets and set their ids. */
+    public void insertAll(List<Bet> bets) {
+        if (bets.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, bets.size());
+        List<Object[]> rows = new ArrayList<>(bets.size());
+        for (int i = 0; i < bets.size(); i++) {
+            Bet bet = bets.get(i);
+            bet.setId(ids.get(i));
+            rows.add(new Object[]{
+                    bet.getId(),
+                    bet.getCustomerId(),
+                    bet.getEventId(),
+                    bet.getMarketType().name(),
+                    bet.getSelection().name(),
+                    bet.getOdds(),
+                    bet.getStake(),
+                    bet.getStatus().name(),
+                    bet.getPotentialPayout(),
+                    Timestamp.from(bet.getPlacedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_BET_SQL, rows);
+    }
+}
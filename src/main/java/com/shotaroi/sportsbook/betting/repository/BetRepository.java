@@ -3,7 +3,12 @@ package com.shotaroi.sportsbook.betting.repository;
 import com.shotaroi.sportsbook.betting.entity.Bet;
 import com.shotaroi.sportsbook.common.domain.BetStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface BetRepository extends JpaRepository<Bet, Long> {
@@ -11,4 +16,65 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
     List<Bet> findByCustomerIdOrderByPlacedAtDesc(Long customerId, org.springframework.data.domain.Pageable pageable);
 
     List<Bet> findByEventIdAndStatus(String eventId, BetStatus status);
+
+    /**
+     * Next keyset page of an event's PLACED bets in id order, row-locked. SKIP LOCKED lets
+     * concurrent settlers of the same event take disjoint chunks instead of colliding.
+     * Only bets with customer_id % partitions = partition are returned (1/0 = all bets).
+     */
+    @Query(value = """
+            SELECT * FROM bets
+            WHERE event_id = :eventId AND status = 'PLACED' AND id > :afterId
+              AND MOD(customer_id, :partitions) = :partition
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Bet> lockNextPlacedChunk(
+            @Param("eventId") String eventId,
+            @Param("partitions") int partitions,
+            @Param("partition") int partition,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit
+    );
+
+    long countByEventIdAndStatus(String eventId, BetStatus status);
+
+    long countBySettlementBatchId(String settlementBatchId);
+
+    @Query("SELECT b.eventId AS eventId, COUNT(b) AS bets FROM Bet b "
+            + "WHERE b.eventId IN :eventIds AND b.status = :status GROUP BY b.eventId")
+    List<EventBetCount> countBetsPerEvent(
+            @Param("eventIds") Collection<String> eventIds,
+            @Param("status") BetStatus status
+    );
+
+    /**
+     * Set-based settlement of a chunk of PLACED bets. winningSelection null = VOID.
+     * Returns rows updated; fewer than ids.size() means some bets were no longer PLACED.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE bets
+            SET status = CASE
+                    WHEN CAST(:winningSelection AS VARCHAR) IS NULL THEN 'SETTLED_VOID'
+                    WHEN selection = CAST(:winningSelection AS VARCHAR) THEN 'SETTLED_WON'
+                    ELSE 'SETTLED_LOST'
+                END,
+                settled_at = :settledAt,
+                settlement_batch_id = :batchId,
+                updated_at = NOW()
+            WHERE id IN (:ids) AND status = 'PLACED'
+            """, nativeQuery = true)
+    int markSettled(
+            @Param("ids") Collection<Long> ids,
+            @Param("winningSelection") String winningSelection,
+            @Param("batchId") String batchId,
+            @Param("settledAt") Instant settledAt
+    );
+
+    interface EventBetCount {
+        String getEventId();
+        long getBets();
+    }
 }
@@ -0,0 +1,98 @@
+package com.shotaroi.sportsbook.betting.service;
+
+import com.shotaroi.sportsbook.common.domain.RiskDecision;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage timers for bet placement. Stage durations are collected in a {@link Trace}
+ * while the bet is placed and recorded once the outcome is known, so every stage is tagged
+ * with the final {@link RiskDecision} ({@code NONE} if placement failed before the risk
+ * engine ran). Timer counts double as stage and outcome counters.
+ * <p>
+ * Meters: {@code sportsbook.bet.placement.stage} (stage, decision) and
+ * {@code sportsbook.bet.placement} (decision, outcome = placed | rejected | error).
+ */
+@Component
+public class BetPlacementMetrics {
+
+    enum Stage { CUSTOMER_CHECK, RISK_EVALUATE, RESERVE, BET_SAVE, LEDGER_DEBIT, COMPENSATION }
+
+    enum Outcome { PLACED, REJECTED, ERROR }
+
+    private static final RiskDecision[] DECISIONS = RiskDecision.values();
+    private static final Stage[] STAGES = Stage.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    // Indexed [stage][decision], [decision][outcome]; the extra decision slot is NONE
+    private final Timer[][] stageTimers = new Timer[STAGES.length][DECISIONS.length + 1];
+    private final Timer[][] placementTimers = new Timer[DECISIONS.length + 1][OUTCOMES.length];
+
+    public BetPlacementMetrics(MeterRegistry meterRegistry) {
+        for (int d = 0; d <= DECISIONS.length; d++) {
+            String decision = d < DECISIONS.length ? DECISIONS[d].name() : "NONE";
+            for (Stage stage : STAGES) {
+                stageTimers[stage.ordinal()][d] = Timer.builder("sportsbook.bet.placement.stage")
+                        .description("Time spent in one stage of bet placement")
+                        .tag("stage", stage.name().toLowerCase())
+                        .tag("decision", decision)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+            for (Outcome outcome : OUTCOMES) {
+                placementTimers[d][outcome.ordinal()] = Timer.builder("sportsbook.bet.placement")
+                        .description("Bet placement end to end, excluding idempotency")
+                        .tag("decision", decision)
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    Trace start() {
+        return new Trace();
+    }
+
+    void record(Trace trace, Outcome outcome) {
+        int d = trace.decision != null ? trace.decision.ordinal() : DECISIONS.length;
+        for (Stage stage : STAGES) {
+            long nanos = trace.stageNanos[stage.ordinal()];
+            if (nanos >= 0) {
+                stageTimers[stage.ordinal()][d].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        placementTimers[d][outcome.ordinal()].record(System.nanoTime() - trace.startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    /** Stage durations of one placement; a stage that never ran stays at -1 and is not recorded. */
+    static final class Trace {
+
+        private final long startedAt = System.nanoTime();
+        private final long[] stageNanos = new long[STAGES.length];
+        private long mark = startedAt;
+        private RiskDecision decision;
+
+        private Trace() {
+            Arrays.fill(stageNanos, -1L);
+        }
+
+        /** Start timing the next stage. */
+        void mark() {
+            mark = System.nanoTime();
+        }
+
+        /** End the stage started at the last {@link #mark()}. */
+        void lap(Stage stage) {
+            stageNanos[stage.ordinal()] = System.nanoTime() - mark;
+        }
+
+        void decision(RiskDecision decision) {
+            this.decision = decision;
+        }
+    }
+}
@@ -2,18 +2,28 @@ package com.shotaroi.sportsbook.betting.service;
 
 import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
 import com.shotaroi.sportsbook.betting.dto.PlaceBetResponse;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipRequest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipRequest.SlipBet;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipResponse;
 import com.shotaroi.sportsbook.betting.entity.Bet;
+import com.shotaroi.sportsbook.betting.repository.BetBatchWriter;
 import com.shotaroi.sportsbook.betting.repository.BetRepository;
-import com.shotaroi.sportsbook.betting.repository.CustomerRepository;
+import com.shotaroi.sportsbook.betting.service.BetPlacementMetrics.Outcome;
+import com.shotaroi.sportsbook.betting.service.BetPlacementMetrics.Stage;
 import com.shotaroi.sportsbook.common.domain.BetStatus;
 import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
 import com.shotaroi.sportsbook.common.domain.MarketType;
 import com.shotaroi.sportsbook.common.domain.RiskDecision;
 import com.shotaroi.sportsbook.common.error.ResourceNotFoundException;
 import com.shotaroi.sportsbook.common.idempotency.IdempotencyService;
+import com.shotaroi.sportsbook.common.util.FixedPointMoney;
 import com.shotaroi.sportsbook.common.util.MoneyUtil;
+import com.shotaroi.sportsbook.ledger.dto.LedgerPosting;
 import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.dto.ReservationResult;
 import com.shotaroi.sportsbook.risk.dto.RiskDecisionResult;
+import com.shotaroi.sportsbook.risk.dto.StakeRequest;
 import com.shotaroi.sportsbook.risk.service.RiskEngineService;
 import com.shotaroi.sportsbook.risk.service.RiskReservationService;
 import org.slf4j.Logger;
@@ -23,9 +33,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Place bet flow: validate -> risk check -> reserve exposure -> debit -> persist bet.
+ * Bet slips run the same steps once per slip (see {@link #placeSlip}).
  */
 @Service
 public class BetService {
@@ -33,24 +48,30 @@ public class BetService {
     private static final Logger log = LoggerFactory.getLogger(BetService.class);
 
     private final BetRepository betRepository;
-    private final CustomerRepository customerRepository;
+    private final BetBatchWriter betBatchWriter;
+    private final CustomerCache customerCache;
     private final RiskEngineService riskEngineService;
     private final RiskReservationService riskReservationService;
     private final LedgerService ledgerService;
     private final IdempotencyService idempotencyService;
+    private final BetPlacementMetrics metrics;
 
     public BetService(BetRepository betRepository,
-                      CustomerRepository customerRepository,
+                      BetBatchWriter betBatchWriter,
+                      CustomerCache customerCache,
                       RiskEngineService riskEngineService,
                       RiskReservationService riskReservationService,
                       LedgerService ledgerService,
-                      IdempotencyService idempotencyService) {
+                      IdempotencyService idempotencyService,
+                      BetPlacementMetrics metrics) {
         this.betRepository = betRepository;
-        this.customerRepository = customerRepository;
+        this.betBatchWriter = betBatchWriter;
+        this.customerCache = customerCache;
         this.riskEngineService = riskEngineService;
         this.riskReservationService = riskReservationService;
         this.ledgerService = ledgerService;
         this.idempotencyService = idempotencyService;
+        this.metrics = metrics;
     }
 
     @Transactional
@@ -65,86 +86,207 @@ public class BetService {
         );
     }
 
-    private PlaceBetResponse doPlaceBet(PlaceBetRequest request) {
+    PlaceBetResponse doPlaceBet(PlaceBetRequest request) {
+        BetPlacementMetrics.Trace trace = metrics.start();
+        try {
+            PlaceBetResponse response = doPlaceBet(request, trace);
+            metrics.record(trace, response.betId() != null ? Outcome.PLACED : Outcome.REJECTED);
+            return response;
+        } catch (RuntimeException e) {
+            metrics.record(trace, Outcome.ERROR);
+            throw e;
+        }
+    }
+
+    private PlaceBetResponse doPlaceBet(PlaceBetRequest request, BetPlacementMetrics.Trace trace) {
         // 1. Validate customer exists
-        if (!customerRepository.existsById(request.customerId())) {
+        trace.mark();
+        if (!customerCache.exists(request.customerId())) {
             throw new ResourceNotFoundException("Customer", request.customerId());
         }
+        trace.lap(Stage.CUSTOMER_CHECK);
 
         // 2. Validate market (MVP: accept; no market suspension check)
         MoneyUtil.validateOdds(request.odds());
         MoneyUtil.validatePositiveStake(request.stake());
 
-        // 3. Risk engine decision
-        BigDecimal potentialLiability = MoneyUtil.potentialPayout(request.stake(), request.odds())
-                .subtract(request.stake());
-        RiskDecisionResult riskResult = riskEngineService.evaluate(
-                request.eventId(),
-                request.marketType(),
-                request.selection(),
-                request.stake(),
-                potentialLiability
-        );
+        // 3. Risk engine decision, in fixed point from here (converted back for JPA and the response)
+        ExposureKey key = new ExposureKey(request.eventId(), request.marketType(), request.selection());
+        long stake = MoneyUtil.toMinorUnits(request.stake());
+        long odds = FixedPointMoney.toOdds(request.odds());
+        trace.mark();
+        long outcome = riskEngineService.evaluateMinor(key, stake, FixedPointMoney.liability(stake, odds));
+        RiskDecision decision = RiskEngineService.decisionOf(outcome, stake);
+        trace.lap(Stage.RISK_EVALUATE);
+        trace.decision(decision);
 
-        BigDecimal acceptedStake = riskResult.maxAllowedStake();
-        if (riskResult.decision() == RiskDecision.REJECT) {
+        if (decision == RiskDecision.REJECT) {
             log.info("Bet rejected: customerId={}, eventId={}, reason={}",
-                    request.customerId(), request.eventId(), riskResult.rejectReason());
+                    request.customerId(), request.eventId(), RiskEngineService.toResult(outcome, stake).rejectReason());
             return new PlaceBetResponse(null, null, BigDecimal.ZERO, BigDecimal.ZERO, RiskDecision.REJECT);
         }
 
-        if (acceptedStake.compareTo(request.stake()) < 0) {
-            acceptedStake = riskResult.maxAllowedStake();
-        }
-
-        BigDecimal potentialPayout = MoneyUtil.potentialPayout(acceptedStake, request.odds());
-        BigDecimal liabilityToReserve = potentialPayout.subtract(acceptedStake);
+        long acceptedStake = outcome;
+        long potentialPayout = FixedPointMoney.payout(acceptedStake, odds);
+        long liabilityToReserve = potentialPayout - acceptedStake;
 
-        // 4. Reserve exposure (optimistic locking + retry)
-        riskReservationService.reserveLiability(
-                request.eventId(),
-                request.marketType(),
-                request.selection(),
-                liabilityToReserve
-        );
+        // 4. Reserve exposure (optimistic locking + retry, or limit-guarded in-memory book)
+        trace.mark();
+        ReservationResult reservation = riskReservationService.reserveLiability(key, liabilityToReserve);
+        trace.lap(Stage.RESERVE);
+        if (!reservation.reserved()) {
+            // Limit was taken by concurrent bets between evaluation and reservation
+            log.info("Bet rejected at reservation: customerId={}, eventId={}, remainingLiability={}",
+                    request.customerId(), request.eventId(), reservation.remainingHeadroom());
+            trace.decision(RiskDecision.REJECT);
+            return new PlaceBetResponse(null, null, BigDecimal.ZERO, BigDecimal.ZERO, RiskDecision.REJECT);
+        }
 
         try {
-            // 5. Debit stake from wallet (may throw InsufficientFundsException)
+            // 5. Persist bet, then debit stake from wallet (may throw InsufficientFundsException)
+            BigDecimal stakeAmount = MoneyUtil.fromMinorUnits(acceptedStake);
+            BigDecimal payoutAmount = MoneyUtil.fromMinorUnits(potentialPayout);
             Bet bet = new Bet();
-        bet.setCustomerId(request.customerId());
-        bet.setEventId(request.eventId());
-        bet.setMarketType(request.marketType());
-        bet.setSelection(request.selection());
-        bet.setOdds(MoneyUtil.odds(request.odds()));
-        bet.setStake(MoneyUtil.money(acceptedStake));
-        bet.setStatus(BetStatus.PLACED);
-        bet.setPotentialPayout(potentialPayout);
-        bet.setPlacedAt(Instant.now());
+            bet.setCustomerId(request.customerId());
+            bet.setEventId(request.eventId());
+            bet.setMarketType(request.marketType());
+            bet.setSelection(request.selection());
+            bet.setOdds(BigDecimal.valueOf(odds, MoneyUtil.ODDS_SCALE));
+            bet.setStake(stakeAmount);
+            bet.setStatus(BetStatus.PLACED);
+            bet.setPotentialPayout(payoutAmount);
+            bet.setPlacedAt(Instant.now());
+            trace.mark();
             bet = betRepository.save(bet);
-            ledgerService.debitStake(request.customerId(), acceptedStake, "BET-" + bet.getId());
+            trace.lap(Stage.BET_SAVE);
+            trace.mark();
+            ledgerService.debitStake(request.customerId(), stakeAmount, "BET-" + bet.getId());
+            trace.lap(Stage.LEDGER_DEBIT);
 
             log.info("Bet placed: betId={}, customerId={}, eventId={}, stake={}, decision={}",
-                    bet.getId(), request.customerId(), request.eventId(), acceptedStake, riskResult.decision());
+                    bet.getId(), request.customerId(), request.eventId(), stakeAmount, decision);
 
             return new PlaceBetResponse(
                 bet.getId(),
                 BetStatus.PLACED,
-                acceptedStake,
-                potentialPayout,
-                riskResult.decision()
+                stakeAmount,
+                payoutAmount,
+                decision
             );
         } catch (Exception e) {
             // Compensate: release reserved exposure if debit fails
-            riskReservationService.releaseLiability(
-                    request.eventId(),
-                    request.marketType(),
-                    request.selection(),
-                    liabilityToReserve
-            );
+            trace.mark();
+            riskReservationService.releaseLiability(key, liabilityToReserve);
+            trace.lap(Stage.COMPENSATION);
             throw e;
         }
     }
 
+    /**
+     * Place a bet slip in one transaction: one customer check, risk evaluated once per
+     * selection, one reservation per selection, one bet batch and one ledger batch.
+     * Each bet gets its own decision; if the stakes of the accepted bets exceed the balance
+     * the whole slip fails, and rolling back releases whatever was reserved.
+     */
+    @Transactional
+    public PlaceBetSlipResponse placeSlip(PlaceBetSlipRequest request, String idempotencyKey) {
+        return idempotencyService.execute(
+                IdempotencyScope.BET_PLACEMENT,
+                String.valueOf(request.customerId()),
+                idempotencyKey,
+                request,
+                PlaceBetSlipResponse.class,
+                () -> doPlaceSlip(request)
+        );
+    }
+
+    PlaceBetSlipResponse doPlaceSlip(PlaceBetSlipRequest request) {
+        Long customerId = request.customerId();
+        if (!customerCache.exists(customerId)) {
+            throw new ResourceNotFoundException("Customer", customerId);
+        }
+
+        // Group by selection, keeping each group's bets (by slip position) in request order
+        List<SlipBet> slip = request.bets();
+        Map<ExposureKey, List<Integer>> positionsByKey = new LinkedHashMap<>();
+        for (int i = 0; i < slip.size(); i++) {
+            SlipBet bet = slip.get(i);
+            MoneyUtil.validateOdds(bet.odds());
+            MoneyUtil.validatePositiveStake(bet.stake());
+            positionsByKey.computeIfAbsent(new ExposureKey(bet.eventId(), bet.marketType(), bet.selection()),
+                    k -> new ArrayList<>()).add(i);
+        }
+
+        RiskDecisionResult[] decisions = new RiskDecisionResult[slip.size()];
+        Map<ExposureKey, Long> liabilityByKey = new LinkedHashMap<>();
+        positionsByKey.forEach((key, positions) -> {
+            List<StakeRequest> stakes = new ArrayList<>(positions.size());
+            for (int i : positions) {
+                stakes.add(new StakeRequest(slip.get(i).stake(), slip.get(i).odds()));
+            }
+            List<RiskDecisionResult> results = riskEngineService.evaluateAll(
+                    key.eventId(), key.marketType(), key.selection(), stakes);
+            for (int j = 0; j < positions.size(); j++) {
+                RiskDecisionResult result = results.get(j);
+                decisions[positions.get(j)] = result;
+                if (result.decision() != RiskDecision.REJECT) {
+                    long liability = FixedPointMoney.liability(MoneyUtil.toMinorUnits(result.maxAllowedStake()),
+                            FixedPointMoney.toOdds(slip.get(positions.get(j)).odds()));
+                    liabilityByKey.merge(key, liability, Long::sum);
+                }
+            }
+        });
+
+        Map<ExposureKey, ReservationResult> reservations = riskReservationService.reserveAll(liabilityByKey);
+
+        PlaceBetResponse[] responses = new PlaceBetResponse[slip.size()];
+        List<Bet> bets = new ArrayList<>(slip.size());
+        List<Integer> betPositions = new ArrayList<>(slip.size());
+        Instant placedAt = Instant.now();
+        for (int i = 0; i < slip.size(); i++) {
+            SlipBet item = slip.get(i);
+            ReservationResult reservation = reservations.get(
+                    new ExposureKey(item.eventId(), item.marketType(), item.selection()));
+            if (decisions[i].decision() == RiskDecision.REJECT || reservation == null || !reservation.reserved()) {
+                // A refused reservation means concurrent bets took the limit; the whole selection is rejected
+                responses[i] = new PlaceBetResponse(null, null, BigDecimal.ZERO, BigDecimal.ZERO, RiskDecision.REJECT);
+                continue;
+            }
+            BigDecimal acceptedStake = decisions[i].maxAllowedStake();
+            Bet bet = new Bet();
+            bet.setCustomerId(customerId);
+            bet.setEventId(item.eventId());
+            bet.setMarketType(item.marketType());
+            bet.setSelection(item.selection());
+            bet.setOdds(MoneyUtil.odds(item.odds()));
+            bet.setStake(MoneyUtil.money(acceptedStake));
+            bet.setStatus(BetStatus.PLACED);
+            bet.setPotentialPayout(MoneyUtil.fromMinorUnits(FixedPointMoney.payout(
+                    MoneyUtil.toMinorUnits(acceptedStake), FixedPointMoney.toOdds(item.odds()))));
+            bet.setPlacedAt(placedAt);
+            bets.add(bet);
+            betPositions.add(i);
+        }
+
+        betBatchWriter.insertAll(bets);
+        List<LedgerPosting> stakes = new ArrayList<>(bets.size());
+        BigDecimal totalStake = BigDecimal.ZERO;
+        for (int j = 0; j < bets.size(); j++) {
+            Bet bet = bets.get(j);
+            int i = betPositions.get(j);
+            stakes.add(LedgerPosting.stake(customerId, bet.getStake(), "BET-" + bet.getId()));
+            totalStake = totalStake.add(bet.getStake());
+            responses[i] = new PlaceBetResponse(
+                    bet.getId(), BetStatus.PLACED, bet.getStake(), bet.getPotentialPayout(), decisions[i].decision());
+        }
+        // May throw InsufficientFundsException; the transaction rollback undoes bets and reservations
+        ledgerService.debitStakes(customerId, stakes);
+
+        log.info("Bet slip placed: customerId={}, bets={}, placed={}, totalStake={}",
+                customerId, slip.size(), bets.size(), totalStake);
+        return new PlaceBetSlipResponse(List.of(responses), totalStake);
+    }
+
     public Bet getBet(Long id) {
         return betRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Bet", id));
@@ -0,0 +1,94 @@
+package com.shotaroi.sportsbook.betting.service;
+
+import com.shotaroi.sportsbook.betting.config.BettingProperties;
+import com.shotaroi.sportsbook.betting.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Customer ids known to exist, consulted by {@link BetService} before placing a bet. A hit
+ * costs no database round trip; a miss falls back to {@code existsById} and caches a found
+ * customer. Unknown ids are never cached, so a customer created later is seen at once.
+ * <p>
+ * Customers with bets or ledger entries cannot be deleted ({@code ON DELETE RESTRICT}).
+ * A customer deleted before ever betting may still be cached until evicted; their bet then
+ * fails on the foreign key instead of with 404.
+ */
+@Component
+public class CustomerCache implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerCache.class);
+
+    private final BettingProperties.CustomerCache properties;
+    private final CustomerRepository customerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, Boolean> known;
+
+    public CustomerCache(BettingProperties properties, CustomerRepository customerRepository,
+                         JdbcTemplate jdbcTemplate) {
+        this.properties = properties.customerCache();
+        this.customerRepository = customerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        int maxEntries = this.properties.maxEntries();
+        this.known = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean exists(Long customerId) {
+        if (!properties.enabled()) {
+            return customerRepository.existsById(customerId);
+        }
+        synchronized (known) {
+            if (known.get(customerId) != null) {
+                return true;
+            }
+        }
+        if (!customerRepository.existsById(customerId)) {
+            return false;
+        }
+        synchronized (known) {
+            known.put(customerId, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    /** Forget a customer, e.g. after deleting them. */
+    public void evict(Long customerId) {
+        synchronized (known) {
+            known.remove(customerId);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (properties.enabled() && properties.preload()) {
+            preload();
+        }
+    }
+
+    void preload() {
+        try {
+            // Oldest first, so the newest customers end up most recently used
+            Map<Long, Boolean> loaded = new LinkedHashMap<>();
+            jdbcTemplate.query("SELECT id FROM (SELECT id FROM customers ORDER BY id DESC LIMIT ?) recent ORDER BY id",
+                    (RowCallbackHandler) rs -> loaded.put(rs.getLong(1), Boolean.TRUE), properties.maxEntries());
+            synchronized (known) {
+                known.putAll(loaded);
+            }
+            log.info("Customer cache preloaded: customers={}", loaded.size());
+        } catch (RuntimeException e) {
+            log.error("Customer cache preload failed, customers will be cached on first bet", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.shotaroi.sportsbook.betting.service;
+
+import com.shotaroi.sportsbook.betting.dto.PlaceBetResponse;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.RiskDecision;
+import com.shotaroi.sportsbook.common.idempotency.BinaryReader;
+import com.shotaroi.sportsbook.common.idempotency.BinaryWriter;
+import com.shotaroi.sportsbook.common.idempotency.ResponseCodec;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stored bet placement response: about 40 bytes instead of ~110 bytes of JSON.
+ */
+@Component
+public class PlaceBetResponseCodec implements ResponseCodec<PlaceBetResponse> {
+
+    private static final BetStatus[] STATUSES = BetStatus.values();
+    private static final RiskDecision[] DECISIONS = RiskDecision.values();
+
+    @Override
+    public Class<PlaceBetResponse> type() {
+        return PlaceBetResponse.class;
+    }
+
+    @Override
+    public void encode(PlaceBetResponse response, BinaryWriter out) {
+        out.putLong(response.betId())
+                .putEnum(response.status())
+                .putDecimal(response.acceptedStake())
+                .putDecimal(response.potentialPayout())
+                .putEnum(response.decision());
+    }
+
+    @Override
+    public PlaceBetResponse decode(BinaryReader in) {
+        return new PlaceBetResponse(
+                in.getLong(),
+                in.getEnum(STATUSES),
+                in.getDecimal(),
+                in.getDecimal(),
+                in.getEnum(DECISIONS)
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.shotaroi.sportsbook.common.domain;
+
+/**
+ * Asynchronous settlement job lifecycle.
+ */
+public enum SettlementJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.shotaroi.sportsbook.common.domain;
+
+/**
+ * Settlement progress of an event result.
+ */
+public enum SettlementStatus {
+    SETTLING,
+    SETTLED
+}
@@ -31,6 +31,9 @@ public class IdempotencyKey {
     @Column(name = "response_json", columnDefinition = "TEXT")
     private String responseJson;
 
+    @Column(name = "response_bytes")
+    private byte[] responseBytes;
+
     @Column(nullable = false)
     private String status;
 
@@ -56,6 +59,8 @@ public class IdempotencyKey {
     public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
     public String getResponseJson() { return responseJson; }
     public void setResponseJson(String responseJson) { this.responseJson = responseJson; }
+    public byte[] getResponseBytes() { return responseBytes; }
+    public void setResponseBytes(byte[] responseBytes) { this.responseBytes = responseBytes; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public Instant getCreatedAt() { return createdAt; }
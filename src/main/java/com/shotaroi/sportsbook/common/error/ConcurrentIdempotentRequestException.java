@@ -0,0 +1,27 @@
+package com.shotaroi.sportsbook.common.error;
+
+/**
+ * Thrown when another request with the same idempotency key and body stored its key first,
+ * after this one had already executed. This request's work is rolled back; a retry replays
+ * the stored response.
+ */
+public class ConcurrentIdempotentRequestException extends DomainException {
+
+    private final String idempotencyKey;
+    private final String scope;
+
+    public ConcurrentIdempotentRequestException(String idempotencyKey, String scope) {
+        super("Request with idempotency key '%s' for scope '%s' completed concurrently; retry to receive its response"
+                .formatted(idempotencyKey, scope));
+        this.idempotencyKey = idempotencyKey;
+        this.scope = scope;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+}
@@ -73,6 +73,17 @@ public class GlobalExceptionHandler {
         return pd;
     }
 
+    @ExceptionHandler(ConcurrentIdempotentRequestException.class)
+    public ProblemDetail handleConcurrentIdempotentRequest(ConcurrentIdempotentRequestException ex) {
+        log.info("Idempotency key stored concurrently, request rolled back: key={}, scope={}",
+                ex.getIdempotencyKey(), ex.getScope());
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+        pd.setTitle("Concurrent Idempotent Request");
+        pd.setProperty("idempotencyKey", ex.getIdempotencyKey());
+        pd.setProperty("scope", ex.getScope());
+        return pd;
+    }
+
     @ExceptionHandler(EventAlreadySettledException.class)
     public ProblemDetail handleEventAlreadySettled(EventAlreadySettledException ex) {
         log.warn("Event already settled: eventId={}", ex.getEventId());
@@ -0,0 +1,25 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+/**
+ * Stored layout of a binary response: one format version byte, then the codec's fields.
+ */
+public final class BinaryCodecs {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private BinaryCodecs() {}
+
+    public static <T> byte[] encode(ResponseCodec<T> codec, T response) {
+        BinaryWriter out = new BinaryWriter();
+        out.put(FORMAT_VERSION);
+        codec.encode(response, out);
+        return out.toByteArray();
+    }
+
+    public static <T> T decode(ResponseCodec<T> codec, byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported stored response format: " + (bytes.length > 0 ? bytes[0] : -1));
+        }
+        return codec.decode(new BinaryReader(bytes, 1));
+    }
+}
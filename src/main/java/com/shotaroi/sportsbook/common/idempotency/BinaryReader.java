@@ -0,0 +1,100 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Decoder for {@link BinaryWriter} output. Reads straight from the stored array; the only
+ * allocations are the decoded values themselves (enum lookup compares bytes in place).
+ */
+public final class BinaryReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    BinaryReader(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    public boolean hasRemaining() {
+        return position < bytes.length;
+    }
+
+    public boolean getBoolean() {
+        return bytes[position++] != BinaryWriter.NULL;
+    }
+
+    public Long getLong() {
+        if (bytes[position++] == BinaryWriter.NULL) {
+            return null;
+        }
+        return getVarLong();
+    }
+
+    /** Decode an enum written by name. constants = the type's values(), cached by the caller. */
+    public <E extends Enum<E>> E getEnum(E[] constants) {
+        if (bytes[position++] == BinaryWriter.NULL) {
+            return null;
+        }
+        int length = (int) getVarLong();
+        int start = position;
+        position += length;
+        for (E constant : constants) {
+            String name = constant.name();
+            if (name.length() == length && matches(name, start)) {
+                return constant;
+            }
+        }
+        throw new IllegalStateException("Unknown " + constants.getClass().getComponentType().getSimpleName()
+                + " in stored response: " + new String(bytes, start, length, StandardCharsets.US_ASCII));
+    }
+
+    public BigDecimal getDecimal() {
+        byte tag = bytes[position++];
+        if (tag == BinaryWriter.NULL) {
+            return null;
+        }
+        int scale = (int) getVarLong();
+        if (tag == BinaryWriter.PRESENT) {
+            return BigDecimal.valueOf(getVarLong(), scale);
+        }
+        int length = (int) getVarLong();
+        BigInteger unscaled = new BigInteger(Arrays.copyOfRange(bytes, position, position + length));
+        position += length;
+        return new BigDecimal(unscaled, scale);
+    }
+
+    public String getString() {
+        if (bytes[position++] == BinaryWriter.NULL) {
+            return null;
+        }
+        int length = (int) getVarLong();
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private boolean matches(String name, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (bytes[start + i] != (byte) name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long getVarLong() {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position++];
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encoder for {@link ResponseCodec}: nullable values carry a one-byte tag, integers are
+ * zig-zag varints, enums are written by name (reordering constants stays safe) and
+ * decimals as scale + unscaled value.
+ */
+public final class BinaryWriter {
+
+    static final byte NULL = 0, PRESENT = 1, BIG = 2;
+
+    private byte[] buffer = new byte[64];
+    private int length;
+
+    public BinaryWriter putBoolean(boolean value) {
+        put(value ? PRESENT : NULL);
+        return this;
+    }
+
+    public BinaryWriter putLong(Long value) {
+        if (value == null) {
+            put(NULL);
+        } else {
+            put(PRESENT);
+            putVarLong(value);
+        }
+        return this;
+    }
+
+    public BinaryWriter putEnum(Enum<?> value) {
+        if (value == null) {
+            put(NULL);
+            return this;
+        }
+        put(PRESENT);
+        String name = value.name();
+        putVarLong(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            put((byte) name.charAt(i));  // Java constant names used here are ASCII
+        }
+        return this;
+    }
+
+    public BinaryWriter putDecimal(BigDecimal value) {
+        if (value == null) {
+            put(NULL);
+            return this;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            put(PRESENT);
+            putVarLong(value.scale());
+            putVarLong(unscaled.longValue());
+        } else {
+            put(BIG);
+            putVarLong(value.scale());
+            byte[] bytes = unscaled.toByteArray();
+            putVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+        return this;
+    }
+
+    public BinaryWriter putString(String value) {
+        if (value == null) {
+            put(NULL);
+            return this;
+        }
+        put(PRESENT);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarLong(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    void put(byte b) {
+        ensure(1);
+        buffer[length++] = b;
+    }
+
+    private void putVarLong(long value) {
+        long v = (value << 1) ^ (value >> 63);  // zig-zag: small negatives stay short
+        while ((v & ~0x7FL) != 0) {
+            put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        put((byte) v);
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over (scope, scopeId, key) triples. No false negatives for keys
+ * that were added; false positives at roughly the configured rate up to expectedKeys.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final int capacity;
+    private final LongAdder added = new LongAdder();
+
+    BloomFilter(int expectedKeys, double falsePositiveRate) {
+        this.capacity = expectedKeys;
+        long n = Math.max(1, expectedKeys);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = (int) Math.max(1, Math.round((double) bits / n * Math.log(2)));
+    }
+
+    void add(String scope, String scopeId, String key) {
+        long h1 = hash(scope, scopeId, key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                // lost a race on this word; re-read and try again
+            }
+        }
+        added.increment();
+    }
+
+    boolean mightContain(String scope, String scopeId, String key) {
+        long h1 = hash(scope, scopeId, key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The number of keys the filter was sized for. */
+    int capacity() {
+        return capacity;
+    }
+
+    /** Keys added so far (duplicates counted again). */
+    long added() {
+        return added.sum();
+    }
+
+    /** 64-bit FNV-1a over the three parts, separated so ("ab","c") and ("a","bc") differ. */
+    private static long hash(String scope, String scopeId, String key) {
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, scope);
+        h = fnv(h, scopeId);
+        return mix(fnv(h, key));
+    }
+
+    private static long fnv(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return (h ^ 0xffff) * 0x100000001b3L;
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
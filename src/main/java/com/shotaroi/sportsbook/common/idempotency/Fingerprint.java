@@ -0,0 +1,157 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over the fields of a {@link Fingerprintable} request, with a fixed binary encoding:
+ * every field is type-tagged and length-prefixed, strings are UTF-8, enums by name, and
+ * decimals by numeric value (2.5 and 2.50 are the same). The result does not depend on
+ * Jackson settings, field order in JSON or the JVM, so nodes and versions agree on it.
+ * <p>
+ * The digest and buffers are reused per platform thread; a virtual thread gets fresh ones,
+ * since it would not live long enough to reuse them.
+ */
+public final class Fingerprint {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte NULL = 0, STRING = 1, LONG = 2, DECIMAL = 3, ENUM = 4;
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<Fingerprint> REUSABLE = ThreadLocal.withInitial(Fingerprint::new);
+
+    private final MessageDigest digest;
+    private final byte[] hash = new byte[32];
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    private Fingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Hex SHA-256 of the request's fields (64 chars, same shape as the JSON hash). */
+    static String of(Fingerprintable request) {
+        Fingerprint fp = Thread.currentThread().isVirtual() ? new Fingerprint() : REUSABLE.get();
+        fp.length = 0;
+        fp.put(FORMAT_VERSION);
+        request.fingerprint(fp);
+        fp.digest.update(fp.buffer, 0, fp.length);
+        try {
+            fp.digest.digest(fp.hash, 0, fp.hash.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+        return HEX.formatHex(fp.hash);
+    }
+
+    public Fingerprint putString(String value) {
+        if (value == null) {
+            return putNull();
+        }
+        put(STRING);
+        int lengthAt = length;
+        putInt(0);  // patched with the encoded length below
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                put((byte) c);
+            } else {
+                // Rare in ids; encode the remainder through the JDK for correct surrogate handling
+                byte[] rest = value.substring(i).getBytes(StandardCharsets.UTF_8);
+                ensure(rest.length);
+                System.arraycopy(rest, 0, buffer, length, rest.length);
+                length += rest.length;
+                break;
+            }
+        }
+        int encoded = length - lengthAt - 4;
+        buffer[lengthAt] = (byte) (encoded >>> 24);
+        buffer[lengthAt + 1] = (byte) (encoded >>> 16);
+        buffer[lengthAt + 2] = (byte) (encoded >>> 8);
+        buffer[lengthAt + 3] = (byte) encoded;
+        return this;
+    }
+
+    public Fingerprint putLong(Long value) {
+        if (value == null) {
+            return putNull();
+        }
+        put(LONG);
+        putLongBits(value);
+        return this;
+    }
+
+    public Fingerprint putEnum(Enum<?> value) {
+        if (value == null) {
+            return putNull();
+        }
+        put(ENUM);
+        return putString(value.name());
+    }
+
+    /** Decimal by value: trailing zeros are stripped, so 2.5 and 2.50 fingerprint the same. */
+    public Fingerprint putDecimal(BigDecimal value) {
+        if (value == null) {
+            return putNull();
+        }
+        put(DECIMAL);
+        BigInteger unscaled = value.unscaledValue();
+        int scale = value.scale();
+        if (unscaled.bitLength() >= 64) {
+            BigDecimal stripped = value.stripTrailingZeros();
+            unscaled = stripped.unscaledValue();
+            scale = stripped.scale();
+        }
+        if (unscaled.bitLength() < 64) {
+            long u = unscaled.longValue();
+            while (u != 0 && u % 10 == 0) {
+                u /= 10;
+                scale--;
+            }
+            putInt(u == 0 ? 0 : scale);
+            putLongBits(u);
+        } else {
+            putInt(scale);
+            putString(unscaled.toString());
+        }
+        return this;
+    }
+
+    private Fingerprint putNull() {
+        put(NULL);
+        return this;
+    }
+
+    private void putInt(int v) {
+        ensure(4);
+        buffer[length++] = (byte) (v >>> 24);
+        buffer[length++] = (byte) (v >>> 16);
+        buffer[length++] = (byte) (v >>> 8);
+        buffer[length++] = (byte) v;
+    }
+
+    private void putLongBits(long v) {
+        putInt((int) (v >>> 32));
+        putInt((int) v);
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buffer[length++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
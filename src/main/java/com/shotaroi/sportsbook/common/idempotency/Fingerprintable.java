@@ -0,0 +1,12 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+/**
+ * A request that writes its own idempotency fingerprint, field by field, instead of being
+ * hashed as JSON. The fields written and their order are part of every stored request hash:
+ * changing them makes replays of keys stored earlier fail with a 409, so treat it like a
+ * schema change.
+ */
+public interface Fingerprintable {
+
+    void fingerprint(Fingerprint fingerprint);
+}
@@ -0,0 +1,175 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process front of {@code idempotency_keys}, consulted by {@link IdempotencyService}:
+ * <ul>
+ *   <li>an LRU/TTL cache of recently completed keys with their request hash and response,
+ *       so a replay is answered without a database round trip;</li>
+ *   <li>a Bloom filter over every stored key, so a key it has never seen skips the pre-read
+ *       (off by default, single node only).</li>
+ * </ul>
+ * Both are only updated after the owning transaction commits. The filter is loaded from the
+ * table before the application takes traffic and rebuilt once it holds more keys than it was
+ * sized for. It only knows keys stored through this node: with several nodes a replay of a
+ * key handled elsewhere would execute again before the insert notices, so it must stay off there.
+ */
+@Component
+public class IdempotencyCache implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyCache.class);
+
+    private final IdempotencyProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Key, Completed> completed;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // null until loaded (or when disabled): every key might exist
+    private volatile BloomFilter filter;
+    // receives adds while a rebuild scans the table, so none are lost in the swap
+    private volatile BloomFilter rebuilding;
+
+    public IdempotencyCache(IdempotencyProperties properties, JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        int maxEntries = properties.cache().maxEntries();
+        this.completed = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Completed> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Cached completion for this key, or null if not cached or expired. */
+    public Completed get(IdempotencyScope scope, String scopeId, String idempotencyKey) {
+        if (!properties.cache().enabled()) {
+            return null;
+        }
+        Key key = new Key(scope, scopeId, idempotencyKey);
+        synchronized (completed) {
+            Completed c = completed.get(key);
+            if (c != null && c.expiresAt() < System.currentTimeMillis()) {
+                completed.remove(key);
+                return null;
+            }
+            return c;
+        }
+    }
+
+    /** False only if this key has certainly never been stored. */
+    public boolean mightExist(IdempotencyScope scope, String scopeId, String idempotencyKey) {
+        BloomFilter f = filter;
+        return f == null || f.mightContain(scope.name(), scopeId, idempotencyKey);
+    }
+
+    /** Record a completed key once the current transaction commits (immediately if none). */
+    public void completedAfterCommit(IdempotencyScope scope, String scopeId, String idempotencyKey,
+                                     String requestHash, Object response) {
+        Runnable publish = () -> {
+            addToFilter(scope, scopeId, idempotencyKey);
+            if (properties.cache().enabled() && response != null) {
+                long expiresAt = System.currentTimeMillis() + properties.cache().ttlSeconds() * 1000;
+                synchronized (completed) {
+                    completed.put(new Key(scope, scopeId, idempotencyKey), new Completed(requestHash, response, expiresAt));
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    /** The key exists in the table (e.g. stored by another node): stop skipping its pre-read. */
+    public void addToFilter(IdempotencyScope scope, String scopeId, String idempotencyKey) {
+        BloomFilter f = filter;
+        if (f != null) {
+            f.add(scope.name(), scopeId, idempotencyKey);
+        }
+        BloomFilter r = rebuilding;
+        if (r != null) {
+            r.add(scope.name(), scopeId, idempotencyKey);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (properties.filter().enabled()) {
+            rebuildFilter();
+        }
+    }
+
+    /** Rebuild once the filter holds more keys than it was sized for, keeping the false-positive rate. */
+    @Scheduled(fixedDelay = 60_000)
+    public void rebuildIfSaturated() {
+        BloomFilter f = filter;
+        if (f != null && f.added() > f.capacity()) {
+            rebuildFilter();
+        }
+    }
+
+    void rebuildFilter() {
+        // A lock rather than synchronized: the table scan would pin a virtual carrier thread
+        rebuildLock.lock();
+        try {
+            BloomFilter next;
+            try {
+                // Leave room to grow, so a table already past expectedKeys does not trigger a rebuild every check
+                long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Long.class);
+                int capacity = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(properties.filter().expectedKeys(), rows * 2));
+                next = new BloomFilter(capacity, properties.filter().falsePositiveRate());
+            } catch (RuntimeException e) {
+                log.error("Idempotency filter sizing failed, keeping previous filter", e);
+                return;
+            }
+            rebuilding = next;
+            try {
+                // In a transaction so the Postgres driver streams rows by fetch size instead of loading them all
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT scope, scope_id, idempotency_key FROM idempotency_keys");
+                    ps.setFetchSize(10_000);
+                    return ps;
+                }, (RowCallbackHandler) rs -> next.add(rs.getString(1), rs.getString(2), rs.getString(3))));
+                filter = next;
+                log.info("Idempotency filter loaded: keys={}", next.added());
+            } catch (RuntimeException e) {
+                log.error("Idempotency filter load failed, keeping previous filter", e);
+            } finally {
+                rebuilding = null;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /** A completed idempotent request: the hash it was stored with and the response returned. */
+    public record Completed(String requestHash, Object response, long expiresAt) {}
+
+    private record Key(IdempotencyScope scope, String scopeId, String idempotencyKey) {}
+}
@@ -0,0 +1,58 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyProperties(
+        @DefaultValue Cache cache,
+        @DefaultValue Filter filter,
+        @DefaultValue Retention retention
+) {
+
+    /**
+     * In-memory cache of recently completed keys and their responses, so replays skip the
+     * database. Entries expire after ttlSeconds; beyond maxEntries the least recently used go.
+     */
+    public record Cache(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("100000") int maxEntries,
+            @DefaultValue("600") long ttlSeconds
+    ) {}
+
+    /**
+     * Bloom filter over every stored key, so new keys skip the pre-read. Sized for
+     * expectedKeys at falsePositiveRate; rebuilt from the table once more keys were added.
+     * Only correct on a single node, since it never sees keys stored by other nodes; off by default.
+     */
+    public record Filter(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("1000000") int expectedKeys,
+            @DefaultValue("0.01") double falsePositiveRate
+    ) {}
+
+    /**
+     * How long a key is kept per scope (defaultTtl when a scope is not listed). A replay that
+     * arrives after its key was purged is executed as a new request, so the TTL must outlast
+     * any client retry window. Expired keys are deleted in batches of batchSize, at most
+     * maxBatchesPerRun per scope on each run.
+     */
+    public record Retention(
+            @DefaultValue("true") boolean enabled,
+            Map<IdempotencyScope, Duration> ttl,
+            @DefaultValue("7d") Duration defaultTtl,
+            @DefaultValue("1000") int batchSize,
+            @DefaultValue("100") int maxBatchesPerRun,
+            @DefaultValue("60000") long purgeIntervalMs
+    ) {
+
+        public Duration ttlFor(IdempotencyScope scope) {
+            Duration configured = ttl != null ? ttl.get(scope) : null;
+            return configured != null ? configured : defaultTtl;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
+import com.shotaroi.sportsbook.common.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Deletes idempotency keys older than their scope's TTL. Each batch is its own short
+ * transaction touching only expired rows, so bet placement never waits on the purge; a
+ * backlog is worked off over several runs instead of in one long delete.
+ */
+@Component
+public class IdempotencyPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyPurgeJob.class);
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyProperties.Retention retention;
+    private final Map<IdempotencyScope, Counter> purged = new EnumMap<>(IdempotencyScope.class);
+
+    public IdempotencyPurgeJob(IdempotencyKeyRepository repository,
+                               TransactionTemplate transactionTemplate,
+                               IdempotencyProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = properties.retention();
+        for (IdempotencyScope scope : IdempotencyScope.values()) {
+            purged.put(scope, Counter.builder("sportsbook.idempotency.purged")
+                    .description("Expired idempotency keys deleted")
+                    .tag("scope", scope.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.retention.purge-interval-ms:60000}")
+    public void purge() {
+        if (!retention.enabled()) {
+            return;
+        }
+        for (IdempotencyScope scope : IdempotencyScope.values()) {
+            try {
+                purgeScope(scope, Instant.now().minus(retention.ttlFor(scope)));
+            } catch (RuntimeException e) {
+                log.error("Idempotency purge failed: scope={}", scope, e);
+            }
+        }
+    }
+
+    /** Delete expired keys of one scope in batches. Returns rows deleted. */
+    int purgeScope(IdempotencyScope scope, Instant cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < retention.maxBatchesPerRun(); batch++) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    repository.deleteExpired(scope.name(), cutoff, retention.batchSize()));
+            int n = deleted != null ? deleted : 0;
+            total += n;
+            if (n < retention.batchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            purged.get(scope).increment(total);
+            log.info("Purged expired idempotency keys: scope={}, rows={}, cutoff={}", scope, total, cutoff);
+        }
+        return total;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
 import com.shotaroi.sportsbook.common.entity.IdempotencyKey;
+import com.shotaroi.sportsbook.common.error.ConcurrentIdempotentRequestException;
 import com.shotaroi.sportsbook.common.error.DuplicateIdempotencyKeyException;
 import com.shotaroi.sportsbook.common.repository.IdempotencyKeyRepository;
 import org.slf4j.Logger;
@@ -15,10 +16,15 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Idempotency: same (scope, scopeId, idempotencyKey) returns cached response.
  * Different request hash with same key = DuplicateIdempotencyKeyException.
+ * {@link IdempotencyCache} answers recent replays and, on a single node, lets new keys skip the lookup.
  */
 @Service
 public class IdempotencyService {
@@ -27,10 +33,15 @@ public class IdempotencyService {
 
     private final IdempotencyKeyRepository repository;
     private final ObjectMapper objectMapper;
+    private final IdempotencyCache cache;
+    private final Map<Class<?>, ResponseCodec<?>> codecs;
 
-    public IdempotencyService(IdempotencyKeyRepository repository, ObjectMapper objectMapper) {
+    public IdempotencyService(IdempotencyKeyRepository repository, ObjectMapper objectMapper, IdempotencyCache cache,
+                              List<ResponseCodec<?>> codecs) {
         this.repository = repository;
         this.objectMapper = objectMapper;
+        this.cache = cache;
+        this.codecs = codecs.stream().collect(Collectors.toUnmodifiableMap(ResponseCodec::type, c -> c));
     }
 
     /**
@@ -48,22 +59,30 @@ public class IdempotencyService {
     ) {
         String requestHash = hashRequest(request);
 
-        var existing = repository.findByScopeAndScopeIdAndIdempotencyKey(scope, scopeId, idempotencyKey);
+        IdempotencyCache.Completed completed = cache.get(scope, scopeId, idempotencyKey);
+        if (completed != null && responseType.isInstance(completed.response())) {
+            if (!sameRequest(completed.requestHash(), requestHash, request)) {
+                throw new DuplicateIdempotencyKeyException(idempotencyKey, scope.name());
+            }
+            log.debug("Idempotent replay from cache: scope={}, scopeId={}, key={}", scope, scopeId, idempotencyKey);
+            return responseType.cast(completed.response());
+        }
+
+        // New keys (by far the common case) are not in the filter and skip the pre-read
+        var existing = cache.mightExist(scope, scopeId, idempotencyKey)
+                ? repository.findByScopeAndScopeIdAndIdempotencyKey(scope, scopeId, idempotencyKey)
+                : Optional.<IdempotencyKey>empty();
 
         if (existing.isPresent()) {
             IdempotencyKey key = existing.get();
-            if (!key.getRequestHash().equals(requestHash)) {
+            if (!sameRequest(key.getRequestHash(), requestHash, request)) {
                 throw new DuplicateIdempotencyKeyException(idempotencyKey, scope.name());
             }
             // Same request: return cached response (no re-execution)
-            if (key.getResponseJson() != null) {
-                try {
-                    T cached = objectMapper.readValue(key.getResponseJson(), responseType);
-                    log.debug("Idempotent replay: scope={}, scopeId={}, key={}", scope, scopeId, idempotencyKey);
-                    return cached;
-                } catch (JsonProcessingException e) {
-                    throw new IllegalStateException("Failed to deserialize cached idempotency response", e);
-                }
+            T cached = readResponse(key, responseType);
+            if (cached != null) {
+                log.debug("Idempotent replay: scope={}, scopeId={}, key={}", scope, scopeId, idempotencyKey);
+                return cached;
             }
         }
 
@@ -74,24 +93,47 @@ public class IdempotencyService {
         toSave.setScopeId(scopeId);
         toSave.setIdempotencyKey(idempotencyKey);
         toSave.setRequestHash(requestHash);
-        toSave.setResponseJson(serializeResponse(result));
+        writeResponse(toSave, result);
         toSave.setStatus("COMPLETED");
 
-        try {
-            repository.save(toSave);
-        } catch (Exception e) {
-            // Concurrent insert - another thread may have saved; verify we're consistent
-            var retry = repository.findByScopeAndScopeIdAndIdempotencyKey(scope, scopeId, idempotencyKey);
-            if (retry.isPresent() && retry.get().getRequestHash().equals(requestHash)) {
-                return result;
+        int inserted = repository.insertIfAbsent(scope.name(), scopeId, idempotencyKey, requestHash,
+                toSave.getResponseJson(), toSave.getResponseBytes(), toSave.getStatus());
+        if (inserted == 0) {
+            // A concurrent request stored the key first (its insert was waited for, so it is
+            // committed and visible). This execution must not commit: throwing rolls it back.
+            cache.addToFilter(scope, scopeId, idempotencyKey);
+            var stored = repository.findByScopeAndScopeIdAndIdempotencyKey(scope, scopeId, idempotencyKey);
+            if (stored.isPresent() && !sameRequest(stored.get().getRequestHash(), requestHash, request)) {
+                throw new DuplicateIdempotencyKeyException(idempotencyKey, scope.name());
             }
-            throw e;
+            throw new ConcurrentIdempotentRequestException(idempotencyKey, scope.name());
         }
 
+        cache.completedAfterCommit(scope, scopeId, idempotencyKey, requestHash, result);
         return result;
     }
 
-    private String hashRequest(Object request) {
+    /**
+     * Fingerprintable requests hash their fields directly ({@link Fingerprint}); anything
+     * else is hashed as JSON.
+     */
+    String hashRequest(Object request) {
+        if (request instanceof Fingerprintable fingerprintable) {
+            return Fingerprint.of(fingerprintable);
+        }
+        return jsonHash(request);
+    }
+
+    /**
+     * Keys stored before a request type became Fingerprintable carry its JSON hash; on a
+     * mismatch that hash is tried too, so those replays still match.
+     */
+    private boolean sameRequest(String storedHash, String requestHash, Object request) {
+        return storedHash.equals(requestHash)
+                || (request instanceof Fingerprintable && storedHash.equals(jsonHash(request)));
+    }
+
+    String jsonHash(Object request) {
         try {
             String json = objectMapper.writeValueAsString(request);
             MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -102,15 +144,42 @@ public class IdempotencyService {
         }
     }
 
-    private String serializeResponse(Object response) {
+    /** Types with a {@link ResponseCodec} are stored as compact bytes, anything else as JSON. */
+    @SuppressWarnings("unchecked")
+    private <T> void writeResponse(IdempotencyKey key, T response) {
+        if (response == null) {
+            return;
+        }
+        ResponseCodec<T> codec = (ResponseCodec<T>) codecs.get(response.getClass());
+        if (codec != null) {
+            key.setResponseBytes(BinaryCodecs.encode(codec, response));
+            return;
+        }
         try {
-            return objectMapper.writeValueAsString(response);
+            key.setResponseJson(objectMapper.writeValueAsString(response));
         } catch (JsonProcessingException e) {
             log.warn("Failed to serialize response for idempotency cache");
-            return null;
         }
     }
 
+    /** Stored response, from bytes or from JSON (keys written before the type had a codec). Null if none. */
+    @SuppressWarnings("unchecked")
+    private <T> T readResponse(IdempotencyKey key, Class<T> responseType) {
+        byte[] bytes = key.getResponseBytes();
+        ResponseCodec<T> codec = (ResponseCodec<T>) codecs.get(responseType);
+        if (bytes != null && codec != null) {
+            return BinaryCodecs.decode(codec, bytes);
+        }
+        if (key.getResponseJson() != null) {
+            try {
+                return objectMapper.readValue(key.getResponseJson(), responseType);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to deserialize cached idempotency response", e);
+            }
+        }
+        return null;
+    }
+
     @FunctionalInterface
     public interface IdempotentOperation<T> {
         T execute();
@@ -0,0 +1,15 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+/**
+ * Compact binary form of one response type, stored in {@code idempotency_keys.response_bytes}
+ * instead of JSON. Stored bytes must stay decodable: add fields only at the end and guard
+ * them with {@link BinaryReader#hasRemaining()}.
+ */
+public interface ResponseCodec<T> {
+
+    Class<T> type();
+
+    void encode(T response, BinaryWriter out);
+
+    T decode(BinaryReader in);
+}
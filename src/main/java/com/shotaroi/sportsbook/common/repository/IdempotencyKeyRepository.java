@@ -3,7 +3,11 @@ package com.shotaroi.sportsbook.common.repository;
 import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
 import com.shotaroi.sportsbook.common.entity.IdempotencyKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
@@ -13,4 +17,40 @@ public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey,
             String scopeId,
             String idempotencyKey
     );
+
+    /**
+     * Store a completed key unless one exists. A concurrent insert of the same key is waited
+     * for instead of failing, so the transaction stays usable. Returns rows inserted (0 or 1).
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (scope, scope_id, idempotency_key, request_hash, response_json, response_bytes, status, created_at)
+            VALUES (:scope, :scopeId, :idempotencyKey, :requestHash, :responseJson, :responseBytes, :status, NOW())
+            ON CONFLICT (scope, scope_id, idempotency_key) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("scope") String scope,
+                       @Param("scopeId") String scopeId,
+                       @Param("idempotencyKey") String idempotencyKey,
+                       @Param("requestHash") String requestHash,
+                       @Param("responseJson") String responseJson,
+                       @Param("responseBytes") byte[] responseBytes,
+                       @Param("status") String status);
+
+    /**
+     * Delete up to batchSize keys of one scope created before cutoff, oldest first. Walks
+     * idx_idempotency_scope_created; SKIP LOCKED lets purges on several nodes run side by side.
+     * Returns rows deleted.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM idempotency_keys
+            WHERE id IN (
+                SELECT id FROM idempotency_keys
+                WHERE scope = :scope AND created_at < :cutoff
+                ORDER BY created_at
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpired(@Param("scope") String scope, @Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
 }
@@ -0,0 +1,52 @@
+package com.shotaroi.sportsbook.common.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Exact money and odds arithmetic on scaled longs, for the risk hot path: money as minor
+ * units (öre, scale 2, see {@link MoneyUtil#toMinorUnits}) and odds as thousandths (scale 3).
+ * The arithmetic does not allocate. Rounding matches MoneyUtil: payouts round HALF_UP, stake caps
+ * round DOWN. Overflow throws ArithmeticException rather than wrapping.
+ * <p>
+ * Convert with {@link #toOdds} / {@link MoneyUtil#toMinorUnits} at the API boundary and
+ * with {@link MoneyUtil#fromMinorUnits} at the JPA boundary.
+ */
+public final class FixedPointMoney {
+
+    /** Odds of 1.000 in thousandths. */
+    public static final long ODDS_ONE = 1000;
+
+    private FixedPointMoney() {
+    }
+
+    /** Odds as thousandths; value is normalized to scale 3 (HALF_UP) first. */
+    public static long toOdds(BigDecimal odds) {
+        return MoneyUtil.odds(odds).unscaledValue().longValueExact();
+    }
+
+    /** stake * odds in minor units, HALF_UP, as {@link MoneyUtil#potentialPayout}. */
+    public static long payout(long stakeMinor, long odds) {
+        return halfUp(Math.multiplyExact(stakeMinor, odds), ODDS_ONE);
+    }
+
+    /** What the book pays out beyond the stake: payout - stake. */
+    public static long liability(long stakeMinor, long odds) {
+        return payout(stakeMinor, odds) - stakeMinor;
+    }
+
+    /** a * b / c rounded DOWN, for non-negative a, b and positive c; exact even if a * b overflows. */
+    public static long mulDivDown(long a, long b, long c) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if (high == 0 && low >= 0) {
+            return low / c;
+        }
+        // Beyond 63 bits: fall back to BigInteger (limits in the billions only)
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c)).longValueExact();
+    }
+
+    private static long halfUp(long value, long divisor) {
+        return Math.addExact(value, divisor / 2) / divisor;
+    }
+}
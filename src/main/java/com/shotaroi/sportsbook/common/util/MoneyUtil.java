@@ -31,6 +31,16 @@ public final class MoneyUtil {
         return money(stake.multiply(odds));
     }
 
+    /** Money as a count of minor units (öre); value is normalized to scale 2 first. */
+    public static long toMinorUnits(BigDecimal value) {
+        return money(value).unscaledValue().longValueExact();
+    }
+
+    /** Inverse of {@link #toMinorUnits(BigDecimal)}. */
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MONEY_SCALE);
+    }
+
     /** Validate stake is positive. */
     public static void validatePositiveStake(BigDecimal stake) {
         if (stake == null || stake.compareTo(BigDecimal.ZERO) <= 0) {
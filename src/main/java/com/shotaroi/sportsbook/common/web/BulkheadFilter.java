@@ -0,0 +1,111 @@
+package com.shotaroi.sportsbook.common.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backpressure for the web tier (see {@link BulkheadProperties}): at most maxConcurrent
+ * /api and /admin requests run at once, the rest wait up to maxWait for a permit and are
+ * then shed with 503 + Retry-After, instead of piling up on the connection pool until
+ * Hikari's connection timeout. Pass-through when disabled.
+ * <p>
+ * Meters: {@code sportsbook.http.bulkhead.active} and {@code sportsbook.http.bulkhead.rejected}.
+ */
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final Semaphore semaphore;
+    private final Counter rejected;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(BulkheadProperties properties, DataSource dataSource,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        int permits = properties.maxConcurrent() > 0
+                ? properties.maxConcurrent()
+                : 2 * poolSize(dataSource);
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.semaphore = new Semaphore(permits, true);
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("sportsbook.http.bulkhead.rejected")
+                .description("Requests shed with 503 after waiting maxWait for a bulkhead permit")
+                .register(meterRegistry);
+        // Registered against the semaphore, not this, so the constructor does not leak a half-built filter
+        Gauge.builder("sportsbook.http.bulkhead.active", semaphore, s -> permits - s.availablePermits())
+                .description("Requests currently holding a bulkhead permit")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Web bulkhead enabled: maxConcurrent={}, maxWait={}", permits, properties.maxWait());
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/api/") || path.startsWith("/admin/"));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many concurrent requests, retry later");
+        pd.setTitle("Service Unavailable");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), pd);
+    }
+}
@@ -0,0 +1,19 @@
+package com.shotaroi.sportsbook.common.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bound on concurrently handled /api and /admin requests. With virtual threads Tomcat no
+ * longer caps concurrency at its worker pool, so without this every accepted connection
+ * would queue on the Hikari pool. maxConcurrent 0 means twice the Hikari maximum pool
+ * size; a request that waits longer than maxWait for a permit gets 503.
+ */
+@ConfigurationProperties(prefix = "web.bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0") int maxConcurrent,
+        @DefaultValue("1s") Duration maxWait
+) {}
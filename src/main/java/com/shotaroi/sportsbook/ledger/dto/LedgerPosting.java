@@ -0,0 +1,34 @@
+package com.shotaroi.sportsbook.ledger.dto;
+
+import com.shotaroi.sportsbook.common.domain.LedgerEntryType;
+import com.shotaroi.sportsbook.common.domain.LedgerReferenceType;
+
+import java.math.BigDecimal;
+
+/**
+ * One entry for a bulk ledger write (see LedgerService.postAll and debitStakes).
+ */
+public record LedgerPosting(
+        Long customerId,
+        LedgerEntryType type,
+        BigDecimal amount,
+        LedgerReferenceType referenceType,
+        String referenceId
+) {
+    public static LedgerPosting stake(Long customerId, BigDecimal amount, String referenceId) {
+        return new LedgerPosting(customerId, LedgerEntryType.DEBIT, amount, LedgerReferenceType.BET_STAKE, referenceId);
+    }
+
+    public static LedgerPosting payout(Long customerId, BigDecimal amount, String referenceId) {
+        return new LedgerPosting(customerId, LedgerEntryType.CREDIT, amount, LedgerReferenceType.BET_PAYOUT, referenceId);
+    }
+
+    public static LedgerPosting refund(Long customerId, BigDecimal amount, String referenceId) {
+        return new LedgerPosting(customerId, LedgerEntryType.REFUND, amount, LedgerReferenceType.BET_REFUND, referenceId);
+    }
+
+    /** Signed effect on the balance: DEBIT negative, CREDIT/REFUND positive. */
+    public BigDecimal signedAmount() {
+        return type == LedgerEntryType.DEBIT ? amount.negate() : amount;
+    }
+}
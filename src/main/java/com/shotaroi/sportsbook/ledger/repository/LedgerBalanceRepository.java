@@ -0,0 +1,84 @@
+package com.shotaroi.sportsbook.ledger.repository;
+
+import com.shotaroi.sportsbook.ledger.entity.LedgerBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface LedgerBalanceRepository extends JpaRepository<LedgerBalance, Long> {
+
+    @Query("SELECT b.balance FROM LedgerBalance b WHERE b.customerId = :customerId AND b.currency = :currency")
+    Optional<BigDecimal> findBalance(@Param("customerId") Long customerId, @Param("currency") String currency);
+
+    /** Apply a signed delta in place. Returns 0 if the customer has no snapshot row yet. */
+    @Modifying
+    @Query(value = """
+            UPDATE ledger_balances
+            SET balance = balance + :delta, updated_at = NOW()
+            WHERE customer_id = :customerId AND currency = :currency
+            """, nativeQuery = true)
+    int addToBalance(@Param("customerId") Long customerId,
+                     @Param("currency") String currency,
+                     @Param("delta") BigDecimal delta);
+
+    /**
+     * Create the snapshot from the full ledger (including entries already written in this
+     * transaction). If a concurrent transaction created it first, apply only our delta.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO ledger_balances (customer_id, currency, balance, updated_at)
+            SELECT :customerId, :currency,
+                   COALESCE(SUM(CASE WHEN e.type = 'DEBIT' THEN -e.amount ELSE e.amount END), 0), NOW()
+            FROM ledger_entries e
+            WHERE e.customer_id = :customerId AND e.currency = :currency
+            ON CONFLICT (customer_id, currency) DO UPDATE
+                SET balance = ledger_balances.balance + :delta, updated_at = NOW()
+            """, nativeQuery = true)
+    int initializeBalance(@Param("customerId") Long customerId,
+                          @Param("currency") String currency,
+                          @Param("delta") BigDecimal delta);
+
+    /**
+     * Debit a stake in one statement: take the amount off the snapshot only if it covers it
+     * and append the DEBIT entry in the same statement. The UPDATE locks the customer's
+     * snapshot row, so concurrent debits for one customer are serialized and each re-checks
+     * the balance left by the previous one. Returns 0 (and writes nothing) if funds are short
+     * or the customer has no snapshot row yet.
+     */
+    @Modifying
+    @Query(value = """
+            WITH debited AS (
+                UPDATE ledger_balances
+                SET balance = balance - :amount, updated_at = NOW()
+                WHERE customer_id = :customerId AND currency = :currency AND balance >= :amount
+                RETURNING customer_id
+            )
+            INSERT INTO ledger_entries (customer_id, type, amount, currency, reference_type, reference_id, created_at)
+            SELECT customer_id, 'DEBIT', :amount, :currency, 'BET_STAKE', :referenceId, NOW()
+            FROM debited
+            """, nativeQuery = true)
+    int debitIfCovered(@Param("customerId") Long customerId,
+                       @Param("currency") String currency,
+                       @Param("amount") BigDecimal amount,
+                       @Param("referenceId") String referenceId);
+
+    /**
+     * Take amount off the snapshot only if it covers it, under the row lock (see
+     * {@link #debitIfCovered}); the caller appends the entries. Returns 0 if funds are short
+     * or the customer has no snapshot row yet.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE ledger_balances
+            SET balance = balance - :amount, updated_at = NOW()
+            WHERE customer_id = :customerId AND currency = :currency AND balance >= :amount
+            """, nativeQuery = true)
+    int withdrawIfCovered(@Param("customerId") Long customerId,
+                          @Param("currency") String currency,
+                          @Param("amount") BigDecimal amount);
+}
@@ -0,0 +1,109 @@
+package com.shotaroi.sportsbook.ledger.repository;
+
+import com.shotaroi.sportsbook.common.util.MoneyUtil;
+import com.shotaroi.sportsbook.ledger.dto.LedgerPosting;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC statements for bulk ledger writers. LedgerEntry uses IDENTITY ids, which stops
+ * Hibernate from batching inserts, so bulk paths go through here instead: entries are
+ * sent as arrays and inserted by one {@code INSERT ... SELECT FROM unnest(...)}, however
+ * many there are. Runs in the caller's transaction.
+ */
+@Repository
+public class LedgerEntryBatchWriter {
+
+    // One statement text for any number of rows, so it stays a single server-side prepared statement
+    private static final String INSERT_ENTRIES_SQL = """
+            INSERT INTO ledger_entries (customer_id, type, amount, currency, reference_type, reference_id, created_at)
+            SELECT e.customer_id, e.type, e.amount, ?, e.reference_type, e.reference_id, NOW()
+            FROM unnest(?::bigint[], ?::varchar[], ?::numeric[], ?::varchar[], ?::varchar[])
+                 AS e(customer_id, type, amount, reference_type, reference_id)
+            """;
+
+    private static final String ENSURE_WALLET_SQL = """
+            INSERT INTO wallets (customer_id, currency) VALUES (?, ?)
+            ON CONFLICT (customer_id, currency) DO NOTHING
+            """;
+
+    private static final String ADD_TO_BALANCE_SQL = """
+            UPDATE ledger_balances SET balance = balance + ?, updated_at = NOW()
+            WHERE customer_id = ? AND currency = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerEntryBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Insert the entries in posting order with one statement. */
+    public void insertEntries(List<LedgerPosting> postings, String currency) {
+        int n = postings.size();
+        if (n == 0) {
+            return;
+        }
+        Long[] customerIds = new Long[n];
+        String[] types = new String[n];
+        BigDecimal[] amounts = new BigDecimal[n];
+        String[] referenceTypes = new String[n];
+        String[] referenceIds = new String[n];
+        for (int i = 0; i < n; i++) {
+            LedgerPosting p = postings.get(i);
+            customerIds[i] = p.customerId();
+            types[i] = p.type().name();
+            amounts[i] = MoneyUtil.money(p.amount());
+            referenceTypes[i] = p.referenceType().name();
+            referenceIds[i] = p.referenceId();
+        }
+        int inserted = jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_ENTRIES_SQL);
+            ps.setString(1, currency);
+            ps.setArray(2, con.createArrayOf("bigint", customerIds));
+            ps.setArray(3, con.createArrayOf("varchar", types));
+            ps.setArray(4, con.createArrayOf("numeric", amounts));
+            ps.setArray(5, con.createArrayOf("varchar", referenceTypes));
+            ps.setArray(6, con.createArrayOf("varchar", referenceIds));
+            return ps;
+        });
+        if (inserted != n) {
+            throw new IllegalStateException("Ledger bulk insert wrote " + inserted + " of " + n + " entries");
+        }
+    }
+
+    public void ensureWallets(Collection<Long> customerIds, String currency) {
+        List<Object[]> rows = new ArrayList<>(customerIds.size());
+        for (Long customerId : customerIds) {
+            rows.add(new Object[]{customerId, currency});
+        }
+        jdbcTemplate.batchUpdate(ENSURE_WALLET_SQL, rows);
+    }
+
+    /**
+     * Apply per-customer deltas to existing balance snapshots.
+     * Returns the customers that have no snapshot row yet.
+     */
+    public List<Long> addToBalances(Map<Long, BigDecimal> deltas, String currency) {
+        List<Long> customerIds = new ArrayList<>(deltas.keySet());
+        List<Object[]> rows = new ArrayList<>(customerIds.size());
+        for (Long customerId : customerIds) {
+            rows.add(new Object[]{deltas.get(customerId), customerId, currency});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, rows);
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(customerIds.get(i));
+            }
+        }
+        return missing;
+    }
+}
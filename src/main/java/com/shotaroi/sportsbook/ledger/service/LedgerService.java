@@ -4,19 +4,26 @@ import com.shotaroi.sportsbook.common.domain.LedgerEntryType;
 import com.shotaroi.sportsbook.common.domain.LedgerReferenceType;
 import com.shotaroi.sportsbook.common.error.InsufficientFundsException;
 import com.shotaroi.sportsbook.common.util.MoneyUtil;
+import com.shotaroi.sportsbook.ledger.dto.LedgerPosting;
 import com.shotaroi.sportsbook.ledger.entity.LedgerEntry;
+import com.shotaroi.sportsbook.ledger.repository.LedgerBalanceRepository;
+import com.shotaroi.sportsbook.ledger.repository.LedgerEntryBatchWriter;
 import com.shotaroi.sportsbook.ledger.repository.LedgerEntryRepository;
-import com.shotaroi.sportsbook.ledger.repository.WalletRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Append-only ledger. Balance is derived from sum of entries, never mutated directly.
+ * Append-only ledger. Balance is derived from entries; a running snapshot in
+ * ledger_balances is updated in the same transaction as each append so reads are O(1).
  */
 @Service
 public class LedgerService {
@@ -25,35 +32,66 @@ public class LedgerService {
     private static final String CURRENCY = "SEK";
 
     private final LedgerEntryRepository ledgerRepository;
-    private final WalletRepository walletRepository;
+    private final WalletCache walletCache;
+    private final LedgerBalanceRepository balanceRepository;
+    private final LedgerEntryBatchWriter batchWriter;
 
-    public LedgerService(LedgerEntryRepository ledgerRepository, WalletRepository walletRepository) {
+    public LedgerService(LedgerEntryRepository ledgerRepository,
+                         WalletCache walletCache,
+                         LedgerBalanceRepository balanceRepository,
+                         LedgerEntryBatchWriter batchWriter) {
         this.ledgerRepository = ledgerRepository;
-        this.walletRepository = walletRepository;
+        this.walletCache = walletCache;
+        this.balanceRepository = balanceRepository;
+        this.batchWriter = batchWriter;
     }
 
     /**
      * Debit stake from customer wallet. Fails if insufficient balance.
+     * Check and append are one conditional statement on the balance snapshot row, so
+     * concurrent bets from one customer cannot both spend the same funds.
      */
     @Transactional
     public void debitStake(Long customerId, BigDecimal amount, String referenceId) {
         MoneyUtil.validatePositiveStake(amount);
-        BigDecimal balance = getBalance(customerId);
-        if (balance.compareTo(amount) < 0) {
-            throw new InsufficientFundsException(customerId, amount, balance);
+        BigDecimal debit = MoneyUtil.money(amount);
+        if (balanceRepository.debitIfCovered(customerId, CURRENCY, debit, referenceId) == 0
+                && !(initializeSnapshot(customerId)
+                     && balanceRepository.debitIfCovered(customerId, CURRENCY, debit, referenceId) == 1)) {
+            throw new InsufficientFundsException(customerId, amount, getBalance(customerId));
         }
         ensureWalletExists(customerId);
-        LedgerEntry entry = new LedgerEntry();
-        entry.setCustomerId(customerId);
-        entry.setType(LedgerEntryType.DEBIT);
-        entry.setAmount(MoneyUtil.money(amount));
-        entry.setCurrency(CURRENCY);
-        entry.setReferenceType(LedgerReferenceType.BET_STAKE);
-        entry.setReferenceId(referenceId);
-        ledgerRepository.save(entry);
         log.info("Ledger debit: customerId={}, amount={}, reference={}", customerId, amount, referenceId);
     }
 
+    /**
+     * Debit a bet slip's stakes: their total is taken off the balance with one conditional
+     * update, then the entries are appended with one insert. Fails as a whole if the total
+     * exceeds the balance.
+     */
+    @Transactional
+    public void debitStakes(Long customerId, List<LedgerPosting> stakes) {
+        if (stakes.isEmpty()) {
+            return;
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (LedgerPosting p : stakes) {
+            if (!p.customerId().equals(customerId) || p.type() != LedgerEntryType.DEBIT) {
+                throw new IllegalArgumentException("Not a stake debit for customer " + customerId + ": " + p);
+            }
+            total = total.add(MoneyUtil.money(p.amount()));
+        }
+        // Funds are taken off the snapshot under its row lock first; the entries follow in one insert
+        if (balanceRepository.withdrawIfCovered(customerId, CURRENCY, total) == 0
+                && !(initializeSnapshot(customerId)
+                     && balanceRepository.withdrawIfCovered(customerId, CURRENCY, total) == 1)) {
+            throw new InsufficientFundsException(customerId, total, getBalance(customerId));
+        }
+        ensureWalletsExist(List.of(customerId));
+        batchWriter.insertEntries(stakes, CURRENCY);
+        log.info("Ledger slip debit: customerId={}, bets={}, total={}", customerId, stakes.size(), total);
+    }
+
     /**
      * Credit payout to customer (bet won).
      */
@@ -68,7 +106,7 @@ public class LedgerService {
         entry.setCurrency(CURRENCY);
         entry.setReferenceType(LedgerReferenceType.BET_PAYOUT);
         entry.setReferenceId(referenceId);
-        ledgerRepository.save(entry);
+        append(entry);
         log.info("Ledger credit: customerId={}, amount={}, reference={}", customerId, amount, referenceId);
     }
 
@@ -86,23 +124,79 @@ public class LedgerService {
         entry.setCurrency(CURRENCY);
         entry.setReferenceType(LedgerReferenceType.BET_REFUND);
         entry.setReferenceId(referenceId);
-        ledgerRepository.save(entry);
+        append(entry);
         log.info("Ledger refund: customerId={}, amount={}, reference={}", customerId, amount, referenceId);
     }
 
-    /** Derive balance from ledger entries. */
-    public BigDecimal getBalance(Long customerId) {
-        BigDecimal sum = ledgerRepository.sumBalanceByCustomerId(customerId);
-        return sum != null ? sum : BigDecimal.ZERO;
+    /**
+     * Bulk append (settlement credits/refunds): one multi-row insert for the entries, one
+     * JDBC batch for balance snapshots and, for customers whose wallet is not cached yet, one
+     * for wallets, however many postings there are.
+     */
+    @Transactional
+    public void postAll(List<LedgerPosting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal> deltas = new LinkedHashMap<>();
+        for (LedgerPosting p : postings) {
+            MoneyUtil.validatePositiveStake(p.amount());
+            deltas.merge(p.customerId(), MoneyUtil.money(p.signedAmount()), BigDecimal::add);
+        }
+        ensureWalletsExist(deltas.keySet());
+        batchWriter.insertEntries(postings, CURRENCY);
+        for (Long customerId : batchWriter.addToBalances(deltas, CURRENCY)) {
+            balanceRepository.initializeBalance(customerId, CURRENCY, deltas.get(customerId));
+        }
+        log.info("Ledger bulk post: entries={}, customers={}", postings.size(), deltas.size());
     }
 
-    private void ensureWalletExists(Long customerId) {
-        walletRepository.findByCustomerIdAndCurrency(customerId, CURRENCY)
+    /** Current balance from the running snapshot; falls back to summing entries if there is none yet. */
+    public BigDecimal getBalance(Long customerId) {
+        return balanceRepository.findBalance(customerId, CURRENCY)
                 .orElseGet(() -> {
-                    var wallet = new com.shotaroi.sportsbook.ledger.entity.Wallet();
-                    wallet.setCustomerId(customerId);
-                    wallet.setCurrency(CURRENCY);
-                    return walletRepository.save(wallet);
+                    BigDecimal sum = ledgerRepository.sumBalanceByCustomerId(customerId);
+                    return sum != null ? sum : BigDecimal.ZERO;
                 });
     }
+
+    /**
+     * A conditional debit found no row to update: create the snapshot if the customer has
+     * none yet (from the full ledger, once). Returns false if it already existed, i.e. the
+     * debit failed for lack of funds.
+     */
+    private boolean initializeSnapshot(Long customerId) {
+        if (balanceRepository.findBalance(customerId, CURRENCY).isPresent()) {
+            return false;
+        }
+        balanceRepository.initializeBalance(customerId, CURRENCY, BigDecimal.ZERO);
+        return true;
+    }
+
+    /** Insert the entry and move the balance snapshot by its signed amount. */
+    private void append(LedgerEntry entry) {
+        ledgerRepository.save(entry);
+        BigDecimal delta = entry.getType() == LedgerEntryType.DEBIT ? entry.getAmount().negate() : entry.getAmount();
+        if (balanceRepository.addToBalance(entry.getCustomerId(), entry.getCurrency(), delta) == 0) {
+            balanceRepository.initializeBalance(entry.getCustomerId(), entry.getCurrency(), delta);
+        }
+    }
+
+    private void ensureWalletExists(Long customerId) {
+        ensureWalletsExist(List.of(customerId));
+    }
+
+    /** Create missing wallets with an idempotent insert; customers already in the cache cost nothing. */
+    private void ensureWalletsExist(Collection<Long> customerIds) {
+        List<Long> missing = new ArrayList<>();
+        for (Long customerId : customerIds) {
+            if (!walletCache.contains(customerId, CURRENCY)) {
+                missing.add(customerId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            batchWriter.ensureWallets(missing, CURRENCY);
+            walletCache.addAfterCommit(missing, CURRENCY);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.shotaroi.sportsbook.ledger.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wallets this node knows to exist, so a ledger write for a known customer skips the
+ * wallet statement. Wallets are never deleted, so an entry never goes stale; keys are only
+ * added after the transaction that created or saw the wallet commits. Once full, new keys
+ * are no longer cached and their writes fall back to the idempotent wallet insert.
+ */
+@Component
+public class WalletCache {
+
+    static final int MAX_ENTRIES = 1_000_000;
+
+    private final Set<Key> known = ConcurrentHashMap.newKeySet();
+
+    public boolean contains(Long customerId, String currency) {
+        return known.contains(new Key(customerId, currency));
+    }
+
+    /** The customers' wallets exist once the current transaction commits (immediately if none). */
+    public void addAfterCommit(Collection<Long> customerIds, String currency) {
+        List<Long> ids = List.copyOf(customerIds);
+        Runnable publish = () -> {
+            for (Long customerId : ids) {
+                if (known.size() >= MAX_ENTRIES) {
+                    return;
+                }
+                known.add(new Key(customerId, currency));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    private record Key(Long customerId, String currency) {}
+}
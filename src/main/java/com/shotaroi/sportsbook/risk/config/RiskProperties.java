@@ -0,0 +1,42 @@
+package com.shotaroi.sportsbook.risk.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "risk")
+public record RiskProperties(
+        @DefaultValue("OPTIMISTIC") ReservationMode reservationMode,
+        @DefaultValue Book book,
+        @DefaultValue Contention contention
+) {
+
+    /**
+     * How RiskReservationService reserves and releases exposure.
+     */
+    public enum ReservationMode {
+        /** Read exposure and version, write back with a version-checked UPDATE; retry on conflict. */
+        OPTIMISTIC,
+        /** Single guarded upsert-and-increment statement; no entity load, version check or retry. */
+        ATOMIC_SQL,
+        /** Lock-free in-process exposure book with write-behind to exposures. Single node only. */
+        IN_MEMORY
+    }
+
+    /**
+     * Write-behind settings for the in-memory exposure book.
+     */
+    public record Book(
+            @DefaultValue("200") long flushIntervalMs,
+            @DefaultValue("500") int flushBatchSize
+    ) {}
+
+    /**
+     * Per-key optimistic-lock contention tracking: how many hottest keys are reported, and
+     * how long a key without new conflicts is kept, and how often gauges are refreshed.
+     */
+    public record Contention(
+            @DefaultValue("10") int topN,
+            @DefaultValue("3600") long retentionSeconds,
+            @DefaultValue("15000") long refreshIntervalMs
+    ) {}
+}
@@ -0,0 +1,29 @@
+package com.shotaroi.sportsbook.risk.controller;
+
+import com.shotaroi.sportsbook.risk.dto.ExposureContentionDto;
+import com.shotaroi.sportsbook.risk.service.ExposureContentionTracker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/exposurecontention[?limit=N]: hottest exposure keys by optimistic-lock conflicts.
+ */
+@Component
+@Endpoint(id = "exposurecontention")
+public class ExposureContentionEndpoint {
+
+    private final ExposureContentionTracker tracker;
+
+    public ExposureContentionEndpoint(ExposureContentionTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public List<ExposureContentionDto> hottest(@Nullable Integer limit) {
+        return tracker.top(limit != null && limit > 0 ? limit : tracker.defaultTopN());
+    }
+}
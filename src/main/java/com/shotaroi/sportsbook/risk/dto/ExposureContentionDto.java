@@ -0,0 +1,19 @@
+package com.shotaroi.sportsbook.risk.dto;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+
+import java.time.Instant;
+
+/**
+ * Optimistic-lock contention on one exposure row since it was first seen conflicting.
+ * exhausted = updates that gave up after the maximum number of retries.
+ */
+public record ExposureContentionDto(
+        String eventId,
+        MarketType marketType,
+        Selection selection,
+        long conflicts,
+        long exhausted,
+        Instant lastConflictAt
+) {}
@@ -0,0 +1,13 @@
+package com.shotaroi.sportsbook.risk.dto;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+
+/**
+ * Identity of an exposure row: (eventId, marketType, selection).
+ */
+public record ExposureKey(
+        String eventId,
+        MarketType marketType,
+        Selection selection
+) {}
@@ -0,0 +1,22 @@
+package com.shotaroi.sportsbook.risk.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of an exposure reservation. When not reserved, remainingHeadroom is the
+ * liability that could still be taken on the selection (null = unknown / no limit).
+ */
+public record ReservationResult(
+        boolean reserved,
+        BigDecimal remainingHeadroom
+) {
+    private static final ReservationResult OK = new ReservationResult(true, null);
+
+    public static ReservationResult ok() {
+        return OK;
+    }
+
+    public static ReservationResult rejected(BigDecimal remainingHeadroom) {
+        return new ReservationResult(false, remainingHeadroom);
+    }
+}
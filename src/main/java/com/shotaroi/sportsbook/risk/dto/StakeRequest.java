@@ -0,0 +1,11 @@
+package com.shotaroi.sportsbook.risk.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One bet's requested stake and odds, for evaluating several bets on a selection at once.
+ */
+public record StakeRequest(
+        BigDecimal stake,
+        BigDecimal odds
+) {}
@@ -4,11 +4,11 @@ import com.shotaroi.sportsbook.common.domain.MarketType;
 import com.shotaroi.sportsbook.common.domain.Selection;
 import com.shotaroi.sportsbook.risk.entity.Exposure;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,13 +16,109 @@ public interface ExposureRepository extends JpaRepository<Exposure, Long> {
 
     Optional<Exposure> findByEventIdAndMarketTypeAndSelection(String eventId, MarketType marketType, Selection selection);
 
-    @Lock(LockModeType.OPTIMISTIC)
-    @Query("SELECT e FROM Exposure e WHERE e.eventId = :eventId AND e.marketType = :marketType AND e.selection = :selection")
-    Optional<Exposure> findByEventIdAndMarketTypeAndSelectionForUpdate(
+    List<Exposure> findByEventId(String eventId);
+
+    /**
+     * Reserved liability and version as committed in the table. Native, so a retry reads the
+     * latest commit instead of the entity already held by the persistence context.
+     */
+    @Query(value = """
+            SELECT reserved_liability AS reservedLiability, version AS version FROM exposures
+            WHERE event_id = :eventId AND market_type = :marketType AND selection = :selection
+            """, nativeQuery = true)
+    Optional<VersionedLiability> findCurrent(
             @Param("eventId") String eventId,
-            @Param("marketType") MarketType marketType,
-            @Param("selection") Selection selection
+            @Param("marketType") String marketType,
+            @Param("selection") String selection
     );
 
-    List<Exposure> findByEventId(String eventId);
+    /** Create the row at zero if it does not exist yet; a concurrent creator wins silently. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO exposures (event_id, market_type, selection, reserved_liability, version, updated_at)
+            VALUES (:eventId, :marketType, :selection, 0, 0, NOW())
+            ON CONFLICT (event_id, market_type, selection) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(
+            @Param("eventId") String eventId,
+            @Param("marketType") String marketType,
+            @Param("selection") String selection
+    );
+
+    /**
+     * Set reserved liability only if the row is still at the version it was read at.
+     * Returns 0 on a version conflict: another transaction updated the row in between
+     * (if it had not committed yet, this waits for it and then re-checks the version).
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE exposures
+            SET reserved_liability = :liability, version = version + 1, updated_at = NOW()
+            WHERE event_id = :eventId AND market_type = :marketType AND selection = :selection
+              AND version = :version
+            """, nativeQuery = true)
+    int updateIfVersion(
+            @Param("eventId") String eventId,
+            @Param("marketType") String marketType,
+            @Param("selection") String selection,
+            @Param("liability") BigDecimal liability,
+            @Param("version") long version
+    );
+
+    /**
+     * Upsert-and-increment guarded by the limit, in one statement. Concurrent callers queue on
+     * the row lock instead of failing a version check. maxLiability null = no limit.
+     * reserved is the new total when the reservation was taken, null when the limit refused it;
+     * existing is the total before this statement (used to report remaining headroom).
+     */
+    @Query(value = """
+            WITH reserved AS (
+                INSERT INTO exposures (event_id, market_type, selection, reserved_liability, version, updated_at)
+                SELECT :eventId, :marketType, :selection, :liability, 0, NOW()
+                WHERE CAST(:maxLiability AS NUMERIC) IS NULL OR :liability <= CAST(:maxLiability AS NUMERIC)
+                ON CONFLICT (event_id, market_type, selection) DO UPDATE
+                    SET reserved_liability = exposures.reserved_liability + EXCLUDED.reserved_liability,
+                        version = exposures.version + 1,
+                        updated_at = NOW()
+                    WHERE CAST(:maxLiability AS NUMERIC) IS NULL
+                       OR exposures.reserved_liability + EXCLUDED.reserved_liability <= CAST(:maxLiability AS NUMERIC)
+                RETURNING reserved_liability
+            )
+            SELECT (SELECT r.reserved_liability FROM reserved r) AS reserved,
+                   (SELECT e.reserved_liability FROM exposures e
+                     WHERE e.event_id = :eventId AND e.market_type = :marketType AND e.selection = :selection) AS existing
+            """, nativeQuery = true)
+    ReservationOutcome reserveWithinLimit(
+            @Param("eventId") String eventId,
+            @Param("marketType") String marketType,
+            @Param("selection") String selection,
+            @Param("liability") BigDecimal liability,
+            @Param("maxLiability") BigDecimal maxLiability
+    );
+
+    /** Decrement in place, clamping at zero. Returns rows updated (0 = no exposure row). */
+    @Modifying
+    @Query(value = """
+            UPDATE exposures
+            SET reserved_liability = GREATEST(reserved_liability - :liability, 0),
+                version = version + 1,
+                updated_at = NOW()
+            WHERE event_id = :eventId AND market_type = :marketType AND selection = :selection
+            """, nativeQuery = true)
+    int decrementReservedLiability(
+            @Param("eventId") String eventId,
+            @Param("marketType") String marketType,
+            @Param("selection") String selection,
+            @Param("liability") BigDecimal liability
+    );
+
+    interface VersionedLiability {
+        BigDecimal getReservedLiability();
+        Long getVersion();
+    }
+
+    interface ReservationOutcome {
+        BigDecimal getReserved();
+        BigDecimal getExisting();
+    }
 }
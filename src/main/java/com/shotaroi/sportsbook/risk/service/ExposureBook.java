@@ -0,0 +1,255 @@
+package com.shotaroi.sportsbook.risk.service;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.util.MoneyUtil;
+import com.shotaroi.sportsbook.risk.config.RiskProperties;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.dto.ReservationResult;
+import com.shotaroi.sportsbook.risk.entity.Exposure;
+import com.shotaroi.sportsbook.risk.repository.ExposureRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process exposure book used by the IN_MEMORY reservation mode.
+ * Reserved liability per (eventId, marketType, selection) is held as minor units in an
+ * AtomicLong; reservations are a compare-and-set against the limit, so a hot selection
+ * never waits on a database row. Changed keys are written to {@code exposures} in batches
+ * by a background flush, and the book is rebuilt from the PLACED bets on startup.
+ * <p>
+ * The book is authoritative only within one JVM: run a single node when this mode is on.
+ */
+@Component
+public class ExposureBook implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ExposureBook.class);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO exposures (event_id, market_type, selection, reserved_liability, version, updated_at)
+            VALUES (?, ?, ?, ?, 0, NOW())
+            ON CONFLICT (event_id, market_type, selection)
+            DO UPDATE SET reserved_liability = EXCLUDED.reserved_liability,
+                          version = exposures.version + 1,
+                          updated_at = NOW()
+            """;
+
+    /** Liability of the open bets, which commit together with their reservation. */
+    private static final String PLACED_LIABILITY_SQL = """
+            SELECT event_id, market_type, selection, SUM(potential_payout - stake)
+            FROM bets
+            WHERE status = 'PLACED'
+            GROUP BY event_id, market_type, selection
+            """;
+
+    private final ConcurrentHashMap<ExposureKey, AtomicLong> reserved = new ConcurrentHashMap<>();
+    private final Set<ExposureKey> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ExposureRepository exposureRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RiskProperties properties;
+
+    public ExposureBook(ExposureRepository exposureRepository, JdbcTemplate jdbcTemplate, RiskProperties properties) {
+        this.exposureRepository = exposureRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Atomically add liability if the new total stays within maxLiability (null = no limit).
+     * If called inside a transaction, the reservation is undone when that transaction rolls back.
+     */
+    public ReservationResult tryReserve(ExposureKey key, BigDecimal liability, BigDecimal maxLiability) {
+        return tryReserve(key, MoneyUtil.toMinorUnits(liability),
+                maxLiability != null ? MoneyUtil.toMinorUnits(maxLiability) : Long.MAX_VALUE);
+    }
+
+    /** As {@link #tryReserve(ExposureKey, BigDecimal, BigDecimal)} in minor units; Long.MAX_VALUE = no limit. */
+    public ReservationResult tryReserve(ExposureKey key, long delta, long max) {
+        AtomicLong slot = slot(key);
+        while (true) {
+            long current = slot.get();
+            long next = current + delta;
+            if (next > max) {
+                return ReservationResult.rejected(MoneyUtil.fromMinorUnits(Math.max(0L, max - current)));
+            }
+            if (slot.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        dirty.add(key);
+        undoOnRollback(key, -delta);
+        return ReservationResult.ok();
+    }
+
+    /**
+     * Release liability, clamping at zero. Undone on rollback like {@link #tryReserve}.
+     */
+    public void release(ExposureKey key, BigDecimal liability) {
+        release(key, MoneyUtil.toMinorUnits(liability));
+    }
+
+    /** As {@link #release(ExposureKey, BigDecimal)} in minor units. */
+    public void release(ExposureKey key, long delta) {
+        AtomicLong slot = slot(key);
+        long released;
+        while (true) {
+            long current = slot.get();
+            long next = current - delta;
+            if (next < 0) {
+                log.warn("Exposure would go negative, clamping to zero: eventId={}, selection={}",
+                        key.eventId(), key.selection());
+                next = 0;
+            }
+            if (slot.compareAndSet(current, next)) {
+                released = current - next;
+                break;
+            }
+        }
+        dirty.add(key);
+        undoOnRollback(key, released);
+    }
+
+    public BigDecimal getReservedLiability(ExposureKey key) {
+        return MoneyUtil.fromMinorUnits(getReservedLiabilityMinor(key));
+    }
+
+    public long getReservedLiabilityMinor(ExposureKey key) {
+        AtomicLong slot = reserved.get(key);
+        return slot != null ? slot.get() : 0L;
+    }
+
+    /**
+     * Write changed keys to the exposures table. Values are absolute, so a key that changes
+     * again while being flushed is simply picked up by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${risk.book.flush-interval-ms:200}")
+    public void flush() {
+        // A lock rather than synchronized: the JDBC batch would pin a virtual carrier thread
+        flushLock.lock();
+        try {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            int batchSize = properties.book().flushBatchSize();
+            List<Object[]> batch = new ArrayList<>(Math.min(batchSize, dirty.size()));
+            Iterator<ExposureKey> it = dirty.iterator();
+            while (it.hasNext()) {
+                ExposureKey key = it.next();
+                it.remove();  // remove before reading, so a concurrent change re-marks the key
+                batch.add(new Object[]{
+                        key.eventId(),
+                        key.marketType().name(),
+                        key.selection().name(),
+                        getReservedLiability(key)
+                });
+                if (batch.size() == batchSize) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the book before the application takes traffic. Reservations reach the exposures
+     * table only on the next flush, so after a crash it can be behind the bets that were
+     * committed; the book is therefore rebuilt from the liability of PLACED bets, and keys whose
+     * table row disagrees are written back at once.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (properties.reservationMode() != RiskProperties.ReservationMode.IN_MEMORY) {
+            return;
+        }
+        jdbcTemplate.query(PLACED_LIABILITY_SQL, rs -> {
+            ExposureKey key = new ExposureKey(rs.getString(1),
+                    MarketType.valueOf(rs.getString(2)), Selection.valueOf(rs.getString(3)));
+            slot(key).set(MoneyUtil.toMinorUnits(rs.getBigDecimal(4)));
+        });
+        Set<ExposureKey> stored = new HashSet<>();
+        for (Exposure e : exposureRepository.findAll()) {
+            ExposureKey key = new ExposureKey(e.getEventId(), e.getMarketType(), e.getSelection());
+            stored.add(key);
+            if (slot(key).get() != MoneyUtil.toMinorUnits(e.getReservedLiability())) {
+                dirty.add(key);
+            }
+        }
+        for (ExposureKey key : reserved.keySet()) {
+            if (!stored.contains(key)) {
+                dirty.add(key);
+            }
+        }
+        int corrected = dirty.size();
+        flush();
+        log.info("Exposure book rebuilt from placed bets: keys={}, exposuresCorrected={}", reserved.size(), corrected);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeBatch(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+            log.debug("Exposure book flushed: rows={}", batch.size());
+        } catch (RuntimeException e) {
+            // Keep the keys dirty so the next flush retries them
+            for (Object[] row : batch) {
+                dirty.add(keyOf(row));
+            }
+            log.error("Exposure book flush failed, will retry: rows={}", batch.size(), e);
+        }
+    }
+
+    private AtomicLong slot(ExposureKey key) {
+        return reserved.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private void undoOnRollback(ExposureKey key, long delta) {
+        if (delta == 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    slot(key).addAndGet(delta);
+                    dirty.add(key);
+                }
+            }
+        });
+    }
+
+    private static ExposureKey keyOf(Object[] row) {
+        return new ExposureKey(
+                (String) row[0],
+                MarketType.valueOf((String) row[1]),
+                Selection.valueOf((String) row[2])
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package com.shotaroi.sportsbook.risk.service;
+
+import com.shotaroi.sportsbook.risk.config.RiskProperties;
+import com.shotaroi.sportsbook.risk.dto.ExposureContentionDto;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts optimistic-lock conflicts per exposure key so contention hotspots can be seen
+ * before reservations start failing. Only keys that have conflicted are tracked; keys with
+ * no conflict for {@code risk.contention.retention-seconds} are dropped.
+ * <p>
+ * The top-N keys are published as the {@code sportsbook.exposure.contention.conflicts}
+ * multi-gauge (tags event, market, selection), refreshed on a schedule so tag cardinality
+ * stays bounded, and served by the {@code exposurecontention} actuator endpoint.
+ */
+@Component
+public class ExposureContentionTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ExposureContentionTracker.class);
+    private static final Comparator<Map.Entry<ExposureKey, Stats>> HOTTEST_FIRST =
+            Comparator.comparingLong((Map.Entry<ExposureKey, Stats> e) -> e.getValue().conflicts.sum()).reversed();
+
+    private final ConcurrentHashMap<ExposureKey, Stats> stats = new ConcurrentHashMap<>();
+    private final RiskProperties.Contention properties;
+    private final MultiGauge hotKeys;
+
+    public ExposureContentionTracker(RiskProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.contention();
+        this.hotKeys = MultiGauge.builder("sportsbook.exposure.contention.conflicts")
+                .description("Optimistic-lock conflicts on the hottest exposure keys")
+                .register(meterRegistry);
+        Gauge.builder("sportsbook.exposure.contention.keys", stats, Map::size)
+                .description("Exposure keys with recent optimistic-lock conflicts")
+                .register(meterRegistry);
+    }
+
+    /** An optimistic-lock conflict that will be retried. */
+    public void recordConflict(ExposureKey key) {
+        stats(key).conflicts.increment();
+    }
+
+    /** An update that gave up after the maximum number of retries. */
+    public void recordExhausted(ExposureKey key) {
+        Stats s = stats(key);
+        s.conflicts.increment();
+        s.exhausted.increment();
+    }
+
+    /** The limit hottest keys by conflict count. */
+    public List<ExposureContentionDto> top(int limit) {
+        return stats.entrySet().stream()
+                .sorted(HOTTEST_FIRST)
+                .limit(limit)
+                .map(e -> new ExposureContentionDto(
+                        e.getKey().eventId(),
+                        e.getKey().marketType(),
+                        e.getKey().selection(),
+                        e.getValue().conflicts.sum(),
+                        e.getValue().exhausted.sum(),
+                        Instant.ofEpochMilli(e.getValue().lastConflictAt)))
+                .toList();
+    }
+
+    public int defaultTopN() {
+        return properties.topN();
+    }
+
+    /** Drop idle keys and republish the top-N gauges. */
+    @Scheduled(fixedDelayString = "${risk.contention.refresh-interval-ms:15000}")
+    public void refresh() {
+        long cutoff = System.currentTimeMillis() - properties.retentionSeconds() * 1000;
+        stats.values().removeIf(s -> s.lastConflictAt < cutoff);
+        List<ExposureContentionDto> top = top(properties.topN());
+        hotKeys.register(top.stream()
+                .<MultiGauge.Row<?>>map(c -> MultiGauge.Row.of(Tags.of(
+                                "event", c.eventId(),
+                                "market", c.marketType().name(),
+                                "selection", c.selection().name()),
+                        c.conflicts()))
+                .toList(), true);
+        if (!top.isEmpty()) {
+            ExposureContentionDto hottest = top.get(0);
+            log.debug("Hottest exposure key: eventId={}, selection={}, conflicts={}, exhausted={}",
+                    hottest.eventId(), hottest.selection(), hottest.conflicts(), hottest.exhausted());
+        }
+    }
+
+    private Stats stats(ExposureKey key) {
+        Stats s = stats.computeIfAbsent(key, k -> new Stats());
+        s.lastConflictAt = System.currentTimeMillis();
+        return s;
+    }
+
+    private static final class Stats {
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+        volatile long lastConflictAt;
+    }
+}
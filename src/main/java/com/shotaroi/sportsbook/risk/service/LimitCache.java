@@ -0,0 +1,204 @@
+package com.shotaroi.sportsbook.risk.service;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.util.MoneyUtil;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.entity.Limit;
+import com.shotaroi.sportsbook.risk.repository.LimitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process snapshot of the limits table. Resolves the effective
+ * EVENT_MARKET_SELECTION -> EVENT -> GLOBAL hierarchy without hitting the database.
+ * Loaded lazily on first use and dropped whenever limits are written through this node.
+ * The cache has no TTL: a limit written through the admin API of another node, or
+ * directly to the table, is not seen here until this node's snapshot is invalidated by
+ * a write of its own or the application restarts.
+ */
+@Component
+public class LimitCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LimitCache.class);
+
+    static final String SCOPE_GLOBAL = "GLOBAL";
+    static final String SCOPE_EVENT = "EVENT";
+    static final String SCOPE_EVENT_MARKET_SELECTION = "EVENT_MARKET_SELECTION";
+
+    private final LimitRepository limitRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public LimitCache(LimitRepository limitRepository) {
+        this.limitRepository = limitRepository;
+    }
+
+    /**
+     * Effective limits for a selection. Each limit falls back independently:
+     * selection scope first, then event scope, then global. Null = not configured.
+     */
+    public EffectiveLimits resolve(String eventId, MarketType marketType, Selection selection) {
+        return resolve(new ExposureKey(eventId, marketType, selection));
+    }
+
+    /** As {@link #resolve(String, MarketType, Selection)}; fallbacks are resolved when the snapshot loads. */
+    public EffectiveLimits resolve(ExposureKey key) {
+        Snapshot s = current();
+        EffectiveLimits limits = s.selections().get(key);
+        if (limits == null) {
+            limits = s.events().get(key.eventId());
+        }
+        return limits != null ? limits : s.global();
+    }
+
+    /** Drop the snapshot; the next lookup reloads it. */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    /**
+     * Invalidate once the current transaction commits (so a concurrent reload cannot
+     * pick up the pre-commit state), or immediately when no transaction is active.
+     * A rolled-back write leaves the snapshot in place.
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot.get();
+        if (s != null) {
+            return s;
+        }
+        long gen = generation.get();
+        Snapshot loaded = Snapshot.of(limitRepository.findAll());
+        // Only publish if no write happened while we were loading
+        if (generation.get() == gen) {
+            snapshot.compareAndSet(null, loaded);
+        }
+        log.debug("Limit cache loaded: selections={}, events={}", loaded.selections().size(), loaded.events().size());
+        return loaded;
+    }
+
+    /**
+     * Resolved limits for one selection. Null fields mean no limit configured at any scope;
+     * the minor-unit copies are {@link #NO_LIMIT} then, for the fixed-point risk path.
+     */
+    public record EffectiveLimits(BigDecimal maxStakePerBet, BigDecimal maxReservedLiability,
+                                  long maxStakePerBetMinor, long maxReservedLiabilityMinor) {
+
+        public static final long NO_LIMIT = Long.MAX_VALUE;
+
+        static EffectiveLimits of(BigDecimal maxStakePerBet, BigDecimal maxReservedLiability) {
+            return new EffectiveLimits(maxStakePerBet, maxReservedLiability,
+                    maxStakePerBet != null ? MoneyUtil.toMinorUnits(maxStakePerBet) : NO_LIMIT,
+                    maxReservedLiability != null ? MoneyUtil.toMinorUnits(maxReservedLiability) : NO_LIMIT);
+        }
+    }
+
+    private record LimitPair(BigDecimal maxStakePerBet, BigDecimal maxReservedLiability) {
+
+        static final LimitPair NONE = new LimitPair(null, null);
+
+        /** Several rows for the same scope: the strictest (minimum) value wins. */
+        LimitPair merge(Limit limit) {
+            return new LimitPair(
+                    min(maxStakePerBet, limit.getMaxStakePerBet()),
+                    min(maxReservedLiability, limit.getMaxReservedLiability())
+            );
+        }
+
+        private static BigDecimal min(BigDecimal a, BigDecimal b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return a.min(b);
+        }
+    }
+
+    /** Limits already resolved per scope, so a lookup builds nothing. */
+    private record Snapshot(EffectiveLimits global, Map<String, EffectiveLimits> events,
+                            Map<ExposureKey, EffectiveLimits> selections) {
+
+        static Snapshot of(List<Limit> limits) {
+            LimitPair global = LimitPair.NONE;
+            Map<String, LimitPair> events = new HashMap<>();
+            Map<String, LimitPair> selections = new HashMap<>();
+            for (Limit limit : limits) {
+                if (!SCOPE_GLOBAL.equals(limit.getScopeType()) && limit.getScopeId() == null) {
+                    continue;
+                }
+                switch (limit.getScopeType()) {
+                    case SCOPE_GLOBAL -> global = global.merge(limit);
+                    case SCOPE_EVENT -> events.merge(limit.getScopeId(), LimitPair.NONE.merge(limit),
+                            (a, b) -> a.merge(limit));
+                    case SCOPE_EVENT_MARKET_SELECTION -> selections.merge(limit.getScopeId(), LimitPair.NONE.merge(limit),
+                            (a, b) -> a.merge(limit));
+                    default -> log.warn("Ignoring limit with unknown scopeType={}, id={}", limit.getScopeType(), limit.getId());
+                }
+            }
+            Map<String, EffectiveLimits> resolvedEvents = new HashMap<>();
+            for (Map.Entry<String, LimitPair> e : events.entrySet()) {
+                resolvedEvents.put(e.getKey(), resolve(e.getValue(), LimitPair.NONE, global));
+            }
+            Map<ExposureKey, EffectiveLimits> resolvedSelections = new HashMap<>();
+            for (Map.Entry<String, LimitPair> e : selections.entrySet()) {
+                ExposureKey key = parseSelectionScope(e.getKey());
+                if (key == null) {
+                    // Could never match a bet's eventId|marketType|selection
+                    log.warn("Ignoring selection limit with malformed scopeId={}", e.getKey());
+                    continue;
+                }
+                resolvedSelections.put(key, resolve(e.getValue(), events.getOrDefault(key.eventId(), LimitPair.NONE), global));
+            }
+            return new Snapshot(resolve(LimitPair.NONE, LimitPair.NONE, global),
+                    Map.copyOf(resolvedEvents), Map.copyOf(resolvedSelections));
+        }
+
+        private static EffectiveLimits resolve(LimitPair first, LimitPair second, LimitPair third) {
+            return EffectiveLimits.of(
+                    firstNonNull(first.maxStakePerBet(), second.maxStakePerBet(), third.maxStakePerBet()),
+                    firstNonNull(first.maxReservedLiability(), second.maxReservedLiability(), third.maxReservedLiability()));
+        }
+
+        private static BigDecimal firstNonNull(BigDecimal a, BigDecimal b, BigDecimal c) {
+            return a != null ? a : b != null ? b : c;
+        }
+
+        /** "eventId|MARKET_TYPE|SELECTION" (the event id may itself contain '|'), or null. */
+        private static ExposureKey parseSelectionScope(String scopeId) {
+            int selectionSep = scopeId.lastIndexOf('|');
+            int marketSep = selectionSep > 0 ? scopeId.lastIndexOf('|', selectionSep - 1) : -1;
+            if (marketSep < 0) {
+                return null;
+            }
+            try {
+                return new ExposureKey(scopeId.substring(0, marketSep),
+                        MarketType.valueOf(scopeId.substring(marketSep + 1, selectionSep)),
+                        Selection.valueOf(scopeId.substring(selectionSep + 1)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
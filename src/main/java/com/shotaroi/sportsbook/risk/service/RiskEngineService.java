@@ -3,21 +3,19 @@ package com.shotaroi.sportsbook.risk.service;
 import com.shotaroi.sportsbook.common.domain.MarketType;
 import com.shotaroi.sportsbook.common.domain.RiskDecision;
 import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.util.FixedPointMoney;
 import com.shotaroi.sportsbook.common.util.MoneyUtil;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
 import com.shotaroi.sportsbook.risk.dto.RiskDecisionResult;
-import com.shotaroi.sportsbook.risk.entity.Exposure;
-import com.shotaroi.sportsbook.risk.entity.Limit;
-import com.shotaroi.sportsbook.risk.repository.ExposureRepository;
-import com.shotaroi.sportsbook.risk.repository.LimitRepository;
+import com.shotaroi.sportsbook.risk.dto.StakeRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Risk engine: evaluates limits and returns ACCEPT / ACCEPT_WITH_LIMIT / REJECT.
@@ -28,16 +26,26 @@ public class RiskEngineService {
 
     private static final Logger log = LoggerFactory.getLogger(RiskEngineService.class);
 
-    private static final String SCOPE_GLOBAL = "GLOBAL";
-    private static final String SCOPE_EVENT = "EVENT";
-    private static final String SCOPE_EVENT_MARKET_SELECTION = "EVENT_MARKET_SELECTION";
-
-    private final ExposureRepository exposureRepository;
-    private final LimitRepository limitRepository;
-
-    public RiskEngineService(ExposureRepository exposureRepository, LimitRepository limitRepository) {
-        this.exposureRepository = exposureRepository;
-        this.limitRepository = limitRepository;
+    private static final long DEFAULT_MAX_STAKE_PER_BET = 100_000_000L;  // 1,000,000.00 in minor units if none set
+
+    // evaluateMinor outcomes below zero: REJECTIONS[-outcome - 1]
+    private static final RiskDecisionResult[] REJECTIONS = {
+            RiskDecisionResult.reject("Stake limit exceeded: no bets allowed"),
+            RiskDecisionResult.reject("Liability limit reached for selection"),
+            RiskDecisionResult.reject("Invalid odds for liability calculation"),
+            RiskDecisionResult.reject("Liability limit reached")
+    };
+    private static final long REJECT_NO_BETS = -1;
+    private static final long REJECT_SELECTION_FULL = -2;
+    private static final long REJECT_INVALID_ODDS = -3;
+    private static final long REJECT_NO_HEADROOM = -4;
+
+    private final RiskReservationService riskReservationService;
+    private final LimitCache limitCache;
+
+    public RiskEngineService(RiskReservationService riskReservationService, LimitCache limitCache) {
+        this.riskReservationService = riskReservationService;
+        this.limitCache = limitCache;
     }
 
     /**
@@ -46,97 +54,110 @@ public class RiskEngineService {
     public RiskDecisionResult evaluate(String eventId, MarketType marketType, Selection selection,
                                        BigDecimal requestedStake, BigDecimal potentialLiability) {
         MoneyUtil.validatePositiveStake(requestedStake);
+        long stakeMinor = MoneyUtil.toMinorUnits(requestedStake);
+        long outcome = evaluateMinor(new ExposureKey(eventId, marketType, selection),
+                stakeMinor, MoneyUtil.toMinorUnits(potentialLiability));
+        return toResult(outcome, stakeMinor);
+    }
+
+    /**
+     * Fixed-point evaluation (see {@link FixedPointMoney}): returns the accepted stake in minor
+     * units (the requested stake = ACCEPT, less = ACCEPT_WITH_LIMIT), or a negative outcome
+     * for REJECT. Decode with {@link #decisionOf} or {@link #toResult}. Does not allocate
+     * with cached limits and the IN_MEMORY book.
+     */
+    public long evaluateMinor(ExposureKey key, long stakeMinor, long liabilityMinor) {
+        requirePositiveStake(stakeMinor);
+        // Limits resolved in-process (selection -> event -> global); no DB round trip
+        LimitCache.EffectiveLimits limits = limitCache.resolve(key);
+        return decide(limits, riskReservationService.getReservedLiabilityMinor(key), stakeMinor, liabilityMinor);
+    }
+
+    /**
+     * Evaluate several bets on one selection (a bet slip), in order, as if every bet accepted
+     * before it were already reserved. Limits and reserved liability are read once.
+     */
+    public List<RiskDecisionResult> evaluateAll(String eventId, MarketType marketType, Selection selection,
+                                                List<StakeRequest> bets) {
+        ExposureKey key = new ExposureKey(eventId, marketType, selection);
+        LimitCache.EffectiveLimits limits = limitCache.resolve(key);
+        long liability = riskReservationService.getReservedLiabilityMinor(key);
+        List<RiskDecisionResult> results = new ArrayList<>(bets.size());
+        for (StakeRequest bet : bets) {
+            MoneyUtil.validatePositiveStake(bet.stake());
+            long stakeMinor = MoneyUtil.toMinorUnits(bet.stake());
+            requirePositiveStake(stakeMinor);
+            long odds = FixedPointMoney.toOdds(bet.odds());
+            long outcome = decide(limits, liability, stakeMinor, FixedPointMoney.liability(stakeMinor, odds));
+            if (outcome > 0) {
+                liability += FixedPointMoney.liability(outcome, odds);
+            }
+            results.add(toResult(outcome, stakeMinor));
+        }
+        return results;
+    }
+
+    /** Decision for an {@link #evaluateMinor} outcome. */
+    public static RiskDecision decisionOf(long outcome, long stakeMinor) {
+        if (outcome < 0) {
+            return RiskDecision.REJECT;
+        }
+        return outcome == stakeMinor ? RiskDecision.ACCEPT : RiskDecision.ACCEPT_WITH_LIMIT;
+    }
+
+    /** An {@link #evaluateMinor} outcome as a result, converting the stake back to money. */
+    public static RiskDecisionResult toResult(long outcome, long stakeMinor) {
+        if (outcome < 0) {
+            return REJECTIONS[(int) -outcome - 1];
+        }
+        BigDecimal stake = MoneyUtil.fromMinorUnits(outcome);
+        return outcome == stakeMinor ? RiskDecisionResult.accept(stake) : RiskDecisionResult.acceptWithLimit(stake);
+    }
 
+    private long decide(LimitCache.EffectiveLimits limits, long currentLiability,
+                        long requestedStake, long potentialLiability) {
         // 1. Check per-bet stake limit
-        BigDecimal maxStakePerBet = getMaxStakePerBet(eventId, marketType, selection);
-        if (requestedStake.compareTo(maxStakePerBet) > 0) {
-            if (maxStakePerBet.compareTo(BigDecimal.ZERO) <= 0) {
-                return RiskDecisionResult.reject("Stake limit exceeded: no bets allowed");
+        long maxStakePerBet = limits.maxStakePerBetMinor() != LimitCache.EffectiveLimits.NO_LIMIT
+                ? limits.maxStakePerBetMinor()
+                : DEFAULT_MAX_STAKE_PER_BET;
+        if (requestedStake > maxStakePerBet) {
+            if (maxStakePerBet <= 0) {
+                return REJECT_NO_BETS;
             }
-            return RiskDecisionResult.acceptWithLimit(maxStakePerBet);
+            return maxStakePerBet;
         }
 
         // 2. Check liability limits
-        BigDecimal currentLiability = getCurrentReservedLiability(eventId, marketType, selection);
-        BigDecimal maxLiability = getMaxReservedLiability(eventId, marketType, selection);
-
-        if (maxLiability != null && maxLiability.compareTo(BigDecimal.ZERO) >= 0) {
-            BigDecimal newLiability = currentLiability.add(potentialLiability);
-            if (newLiability.compareTo(maxLiability) > 0) {
-                BigDecimal remaining = maxLiability.subtract(currentLiability);
-                if (remaining.compareTo(BigDecimal.ZERO) <= 0) {
-                    return RiskDecisionResult.reject("Liability limit reached for selection");
+        long maxLiability = limits.maxReservedLiabilityMinor();
+
+        if (maxLiability != LimitCache.EffectiveLimits.NO_LIMIT && maxLiability >= 0) {
+            long newLiability = Math.addExact(currentLiability, potentialLiability);
+            if (newLiability > maxLiability) {
+                long remaining = maxLiability - currentLiability;
+                if (remaining <= 0) {
+                    return REJECT_SELECTION_FULL;
                 }
-                // Liability = stake * (odds - 1), so stake = liability / (odds - 1)
-                // potentialLiability = requestedStake * (odds - 1) => odds - 1 = potentialLiability / requestedStake
-                BigDecimal oddsMinusOne = potentialLiability.divide(requestedStake, 6, java.math.RoundingMode.HALF_UP);
-                if (oddsMinusOne.compareTo(BigDecimal.ZERO) <= 0) {
-                    return RiskDecisionResult.reject("Invalid odds for liability calculation");
+                if (potentialLiability <= 0) {
+                    return REJECT_INVALID_ODDS;
                 }
-                BigDecimal maxStakeFromRemaining = remaining.divide(oddsMinusOne, 2, java.math.RoundingMode.DOWN);
-                BigDecimal effectiveMax = maxStakeFromRemaining.min(maxStakePerBet);
-                if (effectiveMax.compareTo(BigDecimal.ZERO) <= 0) {
-                    return RiskDecisionResult.reject("Liability limit reached");
+                // Liability = stake * (odds - 1), so the stake that fits is remaining * stake / liability
+                long maxStakeFromRemaining = FixedPointMoney.mulDivDown(remaining, requestedStake, potentialLiability);
+                long effectiveMax = Math.min(maxStakeFromRemaining, maxStakePerBet);
+                if (effectiveMax <= 0) {
+                    return REJECT_NO_HEADROOM;
                 }
-                if (requestedStake.compareTo(effectiveMax) > 0) {
-                    return RiskDecisionResult.acceptWithLimit(effectiveMax);
+                if (requestedStake > effectiveMax) {
+                    return effectiveMax;
                 }
             }
         }
 
-        return RiskDecisionResult.accept(requestedStake);
-    }
-
-    private BigDecimal getCurrentReservedLiability(String eventId, MarketType marketType, Selection selection) {
-        return exposureRepository.findByEventIdAndMarketTypeAndSelection(eventId, marketType, selection)
-                .map(Exposure::getReservedLiability)
-                .orElse(BigDecimal.ZERO);
+        return requestedStake;
     }
 
-    private BigDecimal getMaxReservedLiability(String eventId, MarketType marketType, Selection selection) {
-        String selectionScope = eventId + "|" + marketType + "|" + selection;
-        Optional<BigDecimal> fromSelection = limitRepository.findByScopeTypeAndScopeId(SCOPE_EVENT_MARKET_SELECTION, selectionScope)
-                .stream()
-                .map(Limit::getMaxReservedLiability)
-                .filter(java.util.Objects::nonNull)
-                .min(Comparator.naturalOrder());
-
-        Optional<BigDecimal> fromEvent = limitRepository.findByScopeTypeAndScopeId(SCOPE_EVENT, eventId)
-                .stream()
-                .map(Limit::getMaxReservedLiability)
-                .filter(java.util.Objects::nonNull)
-                .min(Comparator.naturalOrder());
-
-        Optional<BigDecimal> fromGlobal = limitRepository.findByScopeType(SCOPE_GLOBAL)
-                .stream()
-                .map(Limit::getMaxReservedLiability)
-                .filter(java.util.Objects::nonNull)
-                .min(Comparator.naturalOrder());
-
-        return fromSelection.or(() -> fromEvent).or(() -> fromGlobal).orElse(null);
-    }
-
-    private BigDecimal getMaxStakePerBet(String eventId, MarketType marketType, Selection selection) {
-        String selectionScope = eventId + "|" + marketType + "|" + selection;
-        Optional<BigDecimal> fromSelection = limitRepository.findByScopeTypeAndScopeId(SCOPE_EVENT_MARKET_SELECTION, selectionScope)
-                .stream()
-                .map(Limit::getMaxStakePerBet)
-                .filter(java.util.Objects::nonNull)
-                .min(Comparator.naturalOrder());
-
-        Optional<BigDecimal> fromEvent = limitRepository.findByScopeTypeAndScopeId(SCOPE_EVENT, eventId)
-                .stream()
-                .map(Limit::getMaxStakePerBet)
-                .filter(java.util.Objects::nonNull)
-                .min(Comparator.naturalOrder());
-
-        Optional<BigDecimal> fromGlobal = limitRepository.findByScopeType(SCOPE_GLOBAL)
-                .stream()
-                .map(Limit::getMaxStakePerBet)
-                .filter(java.util.Objects::nonNull)
-                .min(Comparator.naturalOrder());
-
-        return fromSelection.or(() -> fromEvent).or(() -> fromGlobal)
-                .orElse(new BigDecimal("1000000"));  // Default high limit if none set
+    private static void requirePositiveStake(long stakeMinor) {
+        if (stakeMinor <= 0) {
+            throw new IllegalArgumentException("Stake must be positive");
+        }
     }
 }
@@ -12,9 +12,11 @@ import java.util.Optional;
 public class RiskLimitService {
 
     private final LimitRepository limitRepository;
+    private final LimitCache limitCache;
 
-    public RiskLimitService(LimitRepository limitRepository) {
+    public RiskLimitService(LimitRepository limitRepository, LimitCache limitCache) {
         this.limitRepository = limitRepository;
+        this.limitCache = limitCache;
     }
 
     @Transactional
@@ -36,6 +38,8 @@ public class RiskLimitService {
             limit.setMaxReservedLiability(request.maxReservedLiability());
             limit.setMaxStakePerBet(request.maxStakePerBet());
         }
-        return limitRepository.save(limit);
+        Limit saved = limitRepository.save(limit);
+        limitCache.invalidateAfterCommit();
+        return saved;
     }
 }
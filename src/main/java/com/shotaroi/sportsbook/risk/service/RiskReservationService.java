@@ -3,8 +3,14 @@ package com.shotaroi.sportsbook.risk.service;
 import com.shotaroi.sportsbook.common.domain.MarketType;
 import com.shotaroi.sportsbook.common.domain.Selection;
 import com.shotaroi.sportsbook.common.util.MoneyUtil;
-import com.shotaroi.sportsbook.risk.entity.Exposure;
+import com.shotaroi.sportsbook.risk.config.RiskProperties;
+import com.shotaroi.sportsbook.risk.config.RiskProperties.ReservationMode;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.dto.ReservationResult;
 import com.shotaroi.sportsbook.risk.repository.ExposureRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,9 +18,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
- * Reserves and releases exposure with optimistic locking + retry.
+ * Reserves and releases exposure. Default mode is optimistic locking + retry on the
+ * exposures row; ATOMIC_SQL does a single limit-guarded upsert; IN_MEMORY uses the
+ * lock-free {@link ExposureBook}. The last two check the liability limit as part of the
+ * reservation.
  * Prevents overshooting limits under concurrent bet placements.
  */
 @Service
@@ -22,85 +35,254 @@ public class RiskReservationService {
 
     private static final Logger log = LoggerFactory.getLogger(RiskReservationService.class);
     private static final int MAX_RETRIES = 10;
+    private static final Comparator<ExposureKey> KEY_ORDER = Comparator.comparing(ExposureKey::eventId)
+            .thenComparing(ExposureKey::marketType)
+            .thenComparing(ExposureKey::selection);
 
     private final ExposureRepository exposureRepository;
+    private final ExposureBook exposureBook;
+    private final LimitCache limitCache;
+    private final ExposureContentionTracker contentionTracker;
+    private final ReservationMode mode;
+    private final Counter reserveRetries;
+    private final Counter releaseRetries;
+    private final DistributionSummary reserveAttempts;
+    private final DistributionSummary releaseAttempts;
 
-    public RiskReservationService(ExposureRepository exposureRepository) {
+    public RiskReservationService(ExposureRepository exposureRepository,
+                                  ExposureBook exposureBook,
+                                  LimitCache limitCache,
+                                  ExposureContentionTracker contentionTracker,
+                                  RiskProperties properties,
+                                  MeterRegistry meterRegistry) {
         this.exposureRepository = exposureRepository;
+        this.exposureBook = exposureBook;
+        this.limitCache = limitCache;
+        this.contentionTracker = contentionTracker;
+        this.mode = properties.reservationMode();
+        this.reserveRetries = retryCounter(meterRegistry, "reserve");
+        this.releaseRetries = retryCounter(meterRegistry, "release");
+        this.reserveAttempts = attemptsSummary(meterRegistry, "reserve");
+        this.releaseAttempts = attemptsSummary(meterRegistry, "release");
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("sportsbook.exposure.optimistic.retries")
+                .description("Optimistic lock conflicts retried on the exposures row")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary attemptsSummary(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder("sportsbook.exposure.optimistic.attempts")
+                .description("Attempts per optimistic exposure update, including the successful or final one")
+                .tag("operation", operation)
+                .serviceLevelObjectives(1, 2, 3, 5, MAX_RETRIES)
+                .register(meterRegistry);
     }
 
     /**
-     * Reserve liability atomically. Retries on OptimisticLockException.
+     * Reserve liability atomically. In OPTIMISTIC mode retries on a version conflict and
+     * always reserves (OptimisticLockException once retries are exhausted); in ATOMIC_SQL and IN_MEMORY modes the reservation is rejected if it
+     * would exceed the selection's liability limit.
      */
     @Transactional
-    public void reserveLiability(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
+    public ReservationResult reserveLiability(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
         MoneyUtil.validatePositiveStake(liability);
+        return reserveLiability(new ExposureKey(eventId, marketType, selection), MoneyUtil.toMinorUnits(liability));
+    }
+
+    /**
+     * As {@link #reserveLiability(String, MarketType, Selection, BigDecimal)} in minor units.
+     * IN_MEMORY mode stays in minor units throughout; the database modes convert at the query.
+     */
+    @Transactional
+    public ReservationResult reserveLiability(ExposureKey key, long liabilityMinor) {
+        if (liabilityMinor <= 0) {
+            throw new IllegalArgumentException("Liability must be positive");
+        }
+        if (mode == ReservationMode.IN_MEMORY) {
+            return exposureBook.tryReserve(key, liabilityMinor, limitCache.resolve(key).maxReservedLiabilityMinor());
+        }
+        String eventId = key.eventId();
+        MarketType marketType = key.marketType();
+        Selection selection = key.selection();
+        BigDecimal liability = MoneyUtil.fromMinorUnits(liabilityMinor);
+        if (mode == ReservationMode.ATOMIC_SQL) {
+            return reserveAtomically(eventId, marketType, selection, liability);
+        }
         int attempts = 0;
         while (true) {
-            try {
-                doReserve(eventId, marketType, selection, liability);
-                return;
-            } catch (OptimisticLockException e) {
-                attempts++;
-                if (attempts >= MAX_RETRIES) {
-                    log.error("Max retries exceeded for exposure reservation: eventId={}, selection={}", eventId, selection);
-                    throw e;
-                }
-                log.debug("Optimistic lock conflict, retry {}/{}: eventId={}", attempts, MAX_RETRIES, eventId);
+            attempts++;
+            if (tryReserve(eventId, marketType, selection, liability)) {
+                reserveAttempts.record(attempts);
+                return ReservationResult.ok();
             }
+            if (attempts >= MAX_RETRIES) {
+                reserveAttempts.record(attempts);
+                contentionTracker.recordExhausted(key);
+                log.error("Max retries exceeded for exposure reservation: eventId={}, selection={}", eventId, selection);
+                throw new OptimisticLockException("Exposure changed concurrently: " + eventId + "/" + selection);
+            }
+            reserveRetries.increment();
+            contentionTracker.recordConflict(key);
+            log.debug("Optimistic lock conflict, retry {}/{}: eventId={}", attempts, MAX_RETRIES, eventId);
+        }
+    }
+
+    /**
+     * One optimistic attempt: read the committed row, write it back only if its version is
+     * unchanged. The version check runs here, inside the attempt, so a conflict is seen by
+     * the retry loop rather than at flush or commit. False on a version conflict.
+     */
+    private boolean tryReserve(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
+        ExposureRepository.VersionedLiability current = exposureRepository
+                .findCurrent(eventId, marketType.name(), selection.name())
+                .orElse(null);
+        if (current == null) {
+            exposureRepository.insertIfAbsent(eventId, marketType.name(), selection.name());
+            current = exposureRepository.findCurrent(eventId, marketType.name(), selection.name())
+                    .orElseThrow(() -> new IllegalStateException("Exposure not created: " + eventId + "/" + selection));
         }
+        BigDecimal updated = current.getReservedLiability().add(MoneyUtil.money(liability));
+        return exposureRepository.updateIfVersion(
+                eventId, marketType.name(), selection.name(), updated, current.getVersion()) == 1;
     }
 
-    private void doReserve(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
-        Exposure exposure = exposureRepository.findByEventIdAndMarketTypeAndSelectionForUpdate(eventId, marketType, selection)
-                .orElseGet(() -> {
-                    Exposure newExp = new Exposure();
-                    newExp.setEventId(eventId);
-                    newExp.setMarketType(marketType);
-                    newExp.setSelection(selection);
-                    newExp.setReservedLiability(BigDecimal.ZERO);
-                    newExp.setVersion(0L);
-                    return exposureRepository.save(newExp);
-                });
-
-        exposure.setReservedLiability(exposure.getReservedLiability().add(MoneyUtil.money(liability)));
-        exposureRepository.save(exposure);
+    private ReservationResult reserveAtomically(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
+        BigDecimal maxLiability = limitCache.resolve(eventId, marketType, selection).maxReservedLiability();
+        ExposureRepository.ReservationOutcome outcome = exposureRepository.reserveWithinLimit(
+                eventId, marketType.name(), selection.name(), MoneyUtil.money(liability), maxLiability);
+        if (outcome.getReserved() != null) {
+            return ReservationResult.ok();
+        }
+        BigDecimal existing = outcome.getExisting() != null ? outcome.getExisting() : BigDecimal.ZERO;
+        BigDecimal headroom = maxLiability.subtract(existing).max(BigDecimal.ZERO);
+        log.debug("Atomic reservation refused by limit: eventId={}, selection={}, headroom={}", eventId, selection, headroom);
+        return ReservationResult.rejected(MoneyUtil.money(headroom));
+    }
+
+    /**
+     * Bet slip reservation: liability (minor units) already summed per (eventId, market,
+     * selection), one {@link #reserveLiability} per key in a fixed key order. A key refused by its limit does
+     * not stop the others; the caller decides what to do with the bets behind it.
+     */
+    @Transactional
+    public Map<ExposureKey, ReservationResult> reserveAll(Map<ExposureKey, Long> liabilityMinorByKey) {
+        // Same order as releaseSettled, so slips and settlement chunks lock exposures rows consistently
+        Map<ExposureKey, Long> ordered = new TreeMap<>(KEY_ORDER);
+        ordered.putAll(liabilityMinorByKey);
+        Map<ExposureKey, ReservationResult> results = new HashMap<>();
+        ordered.forEach((key, liability) -> results.put(key, reserveLiability(key, liability)));
+        return results;
     }
 
     /**
-     * Release liability (on settlement). Retries on OptimisticLockException.
+     * Release liability (on settlement). In OPTIMISTIC mode retries on a version conflict.
      */
     @Transactional
     public void releaseLiability(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
         if (liability == null || liability.compareTo(BigDecimal.ZERO) <= 0) {
             return;
         }
+        releaseLiability(new ExposureKey(eventId, marketType, selection), MoneyUtil.toMinorUnits(liability));
+    }
+
+    /** As {@link #releaseLiability(String, MarketType, Selection, BigDecimal)} in minor units. */
+    @Transactional
+    public void releaseLiability(ExposureKey key, long liabilityMinor) {
+        if (liabilityMinor <= 0) {
+            return;
+        }
+        if (mode == ReservationMode.IN_MEMORY) {
+            exposureBook.release(key, liabilityMinor);
+            return;
+        }
+        String eventId = key.eventId();
+        MarketType marketType = key.marketType();
+        Selection selection = key.selection();
+        BigDecimal liability = MoneyUtil.fromMinorUnits(liabilityMinor);
+        if (mode == ReservationMode.ATOMIC_SQL) {
+            if (exposureRepository.decrementReservedLiability(
+                    eventId, marketType.name(), selection.name(), liability) == 0) {
+                throw new IllegalStateException("Exposure not found for release: " + eventId + "/" + selection);
+            }
+            return;
+        }
         int attempts = 0;
         while (true) {
-            try {
-                doRelease(eventId, marketType, selection, liability);
+            attempts++;
+            if (tryRelease(eventId, marketType, selection, liability)) {
+                releaseAttempts.record(attempts);
                 return;
-            } catch (OptimisticLockException e) {
-                attempts++;
-                if (attempts >= MAX_RETRIES) {
-                    log.error("Max retries exceeded for exposure release: eventId={}, selection={}", eventId, selection);
-                    throw e;
-                }
-                log.debug("Optimistic lock conflict on release, retry {}/{}", attempts, MAX_RETRIES);
             }
+            if (attempts >= MAX_RETRIES) {
+                releaseAttempts.record(attempts);
+                contentionTracker.recordExhausted(key);
+                log.error("Max retries exceeded for exposure release: eventId={}, selection={}", eventId, selection);
+                throw new OptimisticLockException("Exposure changed concurrently: " + eventId + "/" + selection);
+            }
+            releaseRetries.increment();
+            contentionTracker.recordConflict(key);
+            log.debug("Optimistic lock conflict on release, retry {}/{}", attempts, MAX_RETRIES);
         }
     }
 
-    private void doRelease(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
-        Exposure exposure = exposureRepository.findByEventIdAndMarketTypeAndSelectionForUpdate(eventId, marketType, selection)
+    /** As {@link #tryReserve}, subtracting and clamping at zero. False on a version conflict. */
+    private boolean tryRelease(String eventId, MarketType marketType, Selection selection, BigDecimal liability) {
+        ExposureRepository.VersionedLiability current = exposureRepository
+                .findCurrent(eventId, marketType.name(), selection.name())
                 .orElseThrow(() -> new IllegalStateException("Exposure not found for release: " + eventId + "/" + selection));
 
-        BigDecimal newLiability = exposure.getReservedLiability().subtract(MoneyUtil.money(liability));
+        BigDecimal newLiability = current.getReservedLiability().subtract(MoneyUtil.money(liability));
         if (newLiability.compareTo(BigDecimal.ZERO) < 0) {
             log.warn("Exposure would go negative, clamping to zero: eventId={}, selection={}", eventId, selection);
             newLiability = BigDecimal.ZERO;
         }
-        exposure.setReservedLiability(newLiability);
-        exposureRepository.save(exposure);
+        return exposureRepository.updateIfVersion(
+                eventId, marketType.name(), selection.name(), newLiability, current.getVersion()) == 1;
+    }
+
+    /**
+     * Settlement-time release: liability already summed per (eventId, market, selection),
+     * released with one write per key in every mode. No version check or retry: the
+     * decrement is a single clamped UPDATE, so settling thousands of bets on the same
+     * selection costs one statement instead of one optimistic-lock round per bet.
+     */
+    @Transactional
+    public void releaseSettled(Map<ExposureKey, BigDecimal> liabilityByKey) {
+        // Fixed key order, so concurrent settlement chunks lock exposures rows in the same order
+        Map<ExposureKey, BigDecimal> ordered = new TreeMap<>(KEY_ORDER);
+        ordered.putAll(liabilityByKey);
+        ordered.forEach((key, liability) -> {
+            if (liability == null || liability.compareTo(BigDecimal.ZERO) <= 0) {
+                return;
+            }
+            if (mode == ReservationMode.IN_MEMORY) {
+                exposureBook.release(key, liability);
+            } else if (exposureRepository.decrementReservedLiability(
+                    key.eventId(), key.marketType().name(), key.selection().name(), MoneyUtil.money(liability)) == 0) {
+                throw new IllegalStateException("Exposure not found for release: " + key.eventId() + "/" + key.selection());
+            }
+        });
+        log.debug("Released settled exposure: keys={}", liabilityByKey.size());
+    }
+
+    /** Currently reserved liability for a selection, from wherever this mode keeps it. */
+    public BigDecimal getReservedLiability(String eventId, MarketType marketType, Selection selection) {
+        if (mode == ReservationMode.IN_MEMORY) {
+            return exposureBook.getReservedLiability(new ExposureKey(eventId, marketType, selection));
+        }
+        return exposureRepository.findCurrent(eventId, marketType.name(), selection.name())
+                .map(ExposureRepository.VersionedLiability::getReservedLiability)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /** As {@link #getReservedLiability(String, MarketType, Selection)} in minor units. */
+    public long getReservedLiabilityMinor(ExposureKey key) {
+        if (mode == ReservationMode.IN_MEMORY) {
+            return exposureBook.getReservedLiabilityMinor(key);
+        }
+        return MoneyUtil.toMinorUnits(getReservedLiability(key.eventId(), key.marketType(), key.selection()));
     }
 }
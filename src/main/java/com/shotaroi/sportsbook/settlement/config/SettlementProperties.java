@@ -0,0 +1,59 @@
+package com.shotaroi.sportsbook.settlement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "settlement")
+public record SettlementProperties(
+        @DefaultValue("PER_BET") Mode mode,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue Parallel parallel,
+        @DefaultValue Batch batch,
+        @DefaultValue Async async
+) {
+
+    /**
+     * How SettlementService settles the PLACED bets of an event.
+     */
+    public enum Mode {
+        /** One ledger write, exposure release and bet save per bet. */
+        PER_BET,
+        /** Chunks of bets: set-based status update, batched ledger inserts, one release per selection. */
+        BULK,
+        /** Keyset chunks of BULK work, each committed in its own transaction; resumable. */
+        STREAMING,
+        /** STREAMING split into customer_id partitions settled concurrently. */
+        PARALLEL
+    }
+
+    /**
+     * PARALLEL mode: bets are partitioned by customer_id % partitions, one worker per partition.
+     * Each worker holds a connection while it settles a chunk; keep partitions below the pool size.
+     */
+    public record Parallel(
+            @DefaultValue("8") int partitions,
+            @DefaultValue("true") boolean virtualThreads
+    ) {}
+
+    /**
+     * Batch result ingest: how many events are settled at the same time.
+     */
+    public record Batch(
+            @DefaultValue("4") int concurrency
+    ) {}
+
+    /**
+     * Asynchronous settlement: results are queued as settlement_jobs and drained by workers.
+     * A running job's lease is renewed every leaseSeconds / 3; a job not renewed for
+     * leaseSeconds is reclaimed. PER_BET and BULK settle in one transaction, so their
+     * progress is only visible once the job commits.
+     */
+    public record Async(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("2") int workers,
+            @DefaultValue("500") long pollIntervalMs,
+            @DefaultValue("300") long leaseSeconds,
+            @DefaultValue("5") int maxAttempts,
+            @DefaultValue("30") long retryDelaySeconds
+    ) {}
+}
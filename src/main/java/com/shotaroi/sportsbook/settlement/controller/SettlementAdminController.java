@@ -1,7 +1,12 @@
 package com.shotaroi.sportsbook.settlement.controller;
 
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultRequest;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultResponse;
 import com.shotaroi.sportsbook.settlement.dto.PostResultRequest;
 import com.shotaroi.sportsbook.settlement.dto.PostResultResponse;
+import com.shotaroi.sportsbook.settlement.dto.SettlementJobResponse;
+import com.shotaroi.sportsbook.settlement.service.ResultBatchService;
+import com.shotaroi.sportsbook.settlement.service.SettlementJobService;
 import com.shotaroi.sportsbook.settlement.service.SettlementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,9 +20,15 @@ import org.springframework.web.bind.annotation.*;
 public class SettlementAdminController {
 
     private final SettlementService settlementService;
+    private final ResultBatchService resultBatchService;
+    private final SettlementJobService settlementJobService;
 
-    public SettlementAdminController(SettlementService settlementService) {
+    public SettlementAdminController(SettlementService settlementService,
+                                     ResultBatchService resultBatchService,
+                                     SettlementJobService settlementJobService) {
         this.settlementService = settlementService;
+        this.resultBatchService = resultBatchService;
+        this.settlementJobService = settlementJobService;
     }
 
     @PostMapping("/{eventId}/result")
@@ -30,4 +41,17 @@ public class SettlementAdminController {
         PostResultResponse response = settlementService.postResult(eventId, request, idempotencyKey);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/results")
+    @Operation(summary = "Post many event results", description = "Events with a recorded result are skipped. "
+            + "Reports settled, skipped and failed eventIds; failed events can be posted again.")
+    public ResponseEntity<BatchPostResultResponse> postResults(@Valid @RequestBody BatchPostResultRequest request) {
+        return ResponseEntity.ok(resultBatchService.postResults(request));
+    }
+
+    @GetMapping("/{eventId}/settlement")
+    @Operation(summary = "Settlement job status", description = "Progress of an asynchronously settled event.")
+    public ResponseEntity<SettlementJobResponse> getSettlementStatus(@PathVariable String eventId) {
+        return ResponseEntity.ok(settlementJobService.getStatus(eventId));
+    }
 }
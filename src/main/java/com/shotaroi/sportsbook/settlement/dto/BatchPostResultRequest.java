@@ -0,0 +1,21 @@
+package com.shotaroi.sportsbook.settlement.dto;
+
+import com.shotaroi.sportsbook.common.domain.Selection;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Results for many events in one call. Same eventId twice must carry the same selection.
+ */
+public record BatchPostResultRequest(
+        @NotEmpty @Size(max = 1000) List<@Valid EventResultItem> results
+) {
+    public record EventResultItem(
+            @NotBlank String eventId,
+            Selection winningSelection  // null = VOID
+    ) {}
+}
@@ -0,0 +1,17 @@
+package com.shotaroi.sportsbook.settlement.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-event outcome of a batch ingest. skipped = result already recorded; failed = eventId -> error;
+ * queued = eventId -> settlement job id, in async mode instead of settled.
+ * Failed events can simply be posted again.
+ */
+public record BatchPostResultResponse(
+        int received,
+        List<String> settled,
+        List<String> skipped,
+        Map<String, String> failed,
+        Map<String, Long> queued
+) {}
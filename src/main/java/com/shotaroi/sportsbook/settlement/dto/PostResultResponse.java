@@ -1,7 +1,15 @@
 package com.shotaroi.sportsbook.settlement.dto;
 
-public record PostResultResponse(boolean success) {
+/**
+ * jobId is set when the result was queued for asynchronous settlement (settlement.async.enabled);
+ * poll GET /admin/events/{eventId}/settlement for progress.
+ */
+public record PostResultResponse(boolean success, Long jobId) {
     public static PostResultResponse ok() {
-        return new PostResultResponse(true);
+        return new PostResultResponse(true, null);
+    }
+
+    public static PostResultResponse queued(Long jobId) {
+        return new PostResultResponse(true, jobId);
     }
 }
@@ -0,0 +1,17 @@
+package com.shotaroi.sportsbook.settlement.dto;
+
+import com.shotaroi.sportsbook.common.domain.SettlementJobStatus;
+
+import java.time.Instant;
+
+public record SettlementJobResponse(
+        Long jobId,
+        String eventId,
+        SettlementJobStatus status,
+        int attempts,
+        long betsSettled,
+        long betsRemaining,
+        String lastError,
+        Instant createdAt,
+        Instant completedAt
+) {}
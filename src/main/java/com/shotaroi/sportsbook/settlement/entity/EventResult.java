@@ -1,6 +1,7 @@
 package com.shotaroi.sportsbook.settlement.entity;
 
 import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.domain.SettlementStatus;
 import jakarta.persistence.*;
 
 import java.time.Instant;
@@ -23,6 +24,13 @@ public class EventResult {
     @Column(name = "result_version", nullable = false)
     private Long resultVersion = 1L;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SettlementStatus status = SettlementStatus.SETTLED;
+
+    @Column(name = "settlement_batch_id")
+    private String settlementBatchId;
+
     @Column(name = "settled_at", nullable = false)
     private Instant settledAt;
 
@@ -48,6 +56,10 @@ public class EventResult {
     public void setWinningSelection(Selection winningSelection) { this.winningSelection = winningSelection; }
     public Long getResultVersion() { return resultVersion; }
     public void setResultVersion(Long resultVersion) { this.resultVersion = resultVersion; }
+    public SettlementStatus getStatus() { return status; }
+    public void setStatus(SettlementStatus status) { this.status = status; }
+    public String getSettlementBatchId() { return settlementBatchId; }
+    public void setSettlementBatchId(String settlementBatchId) { this.settlementBatchId = settlementBatchId; }
     public Instant getSettledAt() { return settledAt; }
     public void setSettledAt(Instant settledAt) { this.settledAt = settledAt; }
     public Instant getCreatedAt() { return createdAt; }
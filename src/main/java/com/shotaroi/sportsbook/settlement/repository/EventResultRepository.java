@@ -2,10 +2,32 @@ package com.shotaroi.sportsbook.settlement.repository;
 
 import com.shotaroi.sportsbook.settlement.entity.EventResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface EventResultRepository extends JpaRepository<EventResult, Long> {
 
     Optional<EventResult> findByEventId(String eventId);
+
+    List<EventResult> findByEventIdIn(Collection<String> eventIds);
+
+    /**
+     * Record a SETTLING result unless the event already has one. A concurrent insert for the
+     * same event is waited for and then left alone, without aborting this transaction.
+     * Returns rows inserted.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO event_results (event_id, winning_selection, result_version, status, settlement_batch_id, settled_at)
+            VALUES (:eventId, :winningSelection, 1, 'SETTLING', :batchId, NOW())
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertSettlingIfAbsent(@Param("eventId") String eventId,
+                               @Param("winningSelection") String winningSelection,
+                               @Param("batchId") String batchId);
 }
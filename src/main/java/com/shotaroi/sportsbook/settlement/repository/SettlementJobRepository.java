@@ -0,0 +1,97 @@
+package com.shotaroi.sportsbook.settlement.repository;
+
+import com.shotaroi.sportsbook.settlement.entity.SettlementJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SettlementJobRepository extends JpaRepository<SettlementJob, Long> {
+
+    Optional<SettlementJob> findByEventId(String eventId);
+
+    /**
+     * Insert a QUEUED job, or re-queue the event's job if it FAILED (attempts reset, original
+     * result kept). A job that is QUEUED, RUNNING or DONE is left alone. Returns rows written.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO settlement_jobs (event_id, winning_selection, status)
+            VALUES (:eventId, :winningSelection, 'QUEUED')
+            ON CONFLICT (event_id) DO UPDATE
+                SET status = 'QUEUED',
+                    attempts = 0,
+                    locked_by = NULL,
+                    locked_until = NULL,
+                    updated_at = NOW()
+                WHERE settlement_jobs.status = 'FAILED'
+            """, nativeQuery = true)
+    int enqueue(@Param("eventId") String eventId, @Param("winningSelection") String winningSelection);
+
+    /**
+     * Claim the oldest QUEUED job, or a RUNNING one whose lease expired, for leaseSeconds.
+     * locked_until doubles as not-before for QUEUED jobs waiting to be retried.
+     * SKIP LOCKED keeps concurrent workers (on any node) from claiming the same job.
+     * Returns the claimed job id, empty when there is nothing to do.
+     */
+    @Query(value = """
+            WITH claimed AS (
+                UPDATE settlement_jobs
+                SET status = 'RUNNING',
+                    locked_by = :workerId,
+                    locked_until = NOW() + make_interval(secs => :leaseSeconds),
+                    attempts = attempts + 1,
+                    updated_at = NOW()
+                WHERE id = (
+                    SELECT id FROM settlement_jobs
+                    WHERE status IN ('QUEUED', 'RUNNING') AND (locked_until IS NULL OR locked_until < NOW())
+                    ORDER BY id
+                    LIMIT 1
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id
+            )
+            SELECT id FROM claimed
+            """, nativeQuery = true)
+    Optional<Long> claimNext(@Param("workerId") String workerId, @Param("leaseSeconds") long leaseSeconds);
+
+    /** Extend the lease of a job this worker still holds. Returns 0 if the lease was lost. */
+    @Modifying
+    @Query(value = """
+            UPDATE settlement_jobs
+            SET locked_until = NOW() + make_interval(secs => :leaseSeconds), updated_at = NOW()
+            WHERE id = :jobId AND status = 'RUNNING' AND locked_by = :workerId
+            """, nativeQuery = true)
+    int renewLease(@Param("jobId") Long jobId, @Param("workerId") String workerId,
+                   @Param("leaseSeconds") long leaseSeconds);
+
+    /** Mark DONE, only while this worker holds the job. Returns 0 if the lease was lost. */
+    @Modifying
+    @Query(value = """
+            UPDATE settlement_jobs
+            SET status = 'DONE', completed_at = NOW(), locked_by = NULL, locked_until = NULL,
+                last_error = NULL, updated_at = NOW()
+            WHERE id = :jobId AND status = 'RUNNING' AND locked_by = :workerId
+            """, nativeQuery = true)
+    int complete(@Param("jobId") Long jobId, @Param("workerId") String workerId);
+
+    /**
+     * Requeue after retryDelaySeconds, or FAILED once maxAttempts is reached, only while this
+     * worker holds the job. Returns 0 if the lease was lost.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE settlement_jobs
+            SET status = CASE WHEN attempts >= :maxAttempts THEN 'FAILED' ELSE 'QUEUED' END,
+                locked_until = CASE WHEN attempts >= :maxAttempts THEN NULL
+                                    ELSE NOW() + make_interval(secs => :retryDelaySeconds) END,
+                locked_by = NULL,
+                last_error = :error,
+                updated_at = NOW()
+            WHERE id = :jobId AND status = 'RUNNING' AND locked_by = :workerId
+            """, nativeQuery = true)
+    int fail(@Param("jobId") Long jobId, @Param("workerId") String workerId, @Param("error") String error,
+             @Param("maxAttempts") int maxAttempts, @Param("retryDelaySeconds") long retryDelaySeconds);
+}
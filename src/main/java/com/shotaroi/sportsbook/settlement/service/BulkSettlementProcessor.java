@@ -0,0 +1,95 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.betting.entity.Bet;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.ledger.dto.LedgerPosting;
+import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.service.RiskReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settles a chunk of PLACED bets with a constant number of statements: one set-based status
+ * update, one batched ledger write and one exposure write per (market, selection).
+ * settleChunk runs in the caller's transaction; settleNextChunk in its own.
+ */
+@Component
+public class BulkSettlementProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkSettlementProcessor.class);
+
+    private final BetRepository betRepository;
+    private final LedgerService ledgerService;
+    private final RiskReservationService riskReservationService;
+
+    public BulkSettlementProcessor(BetRepository betRepository,
+                                   LedgerService ledgerService,
+                                   RiskReservationService riskReservationService) {
+        this.betRepository = betRepository;
+        this.ledgerService = ledgerService;
+        this.riskReservationService = riskReservationService;
+    }
+
+    /**
+     * STREAMING/PARALLEL modes: lock the next chunk of the partition's PLACED bets after
+     * afterId, settle it and commit. Partition 0 of 1 covers every bet.
+     * Returns the last bet id of the chunk, or 0 when no PLACED bets are left past afterId.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long settleNextChunk(String eventId, Selection winningSelection, String batchId,
+                                int partitions, int partition, long afterId, int chunkSize) {
+        List<Bet> bets = betRepository.lockNextPlacedChunk(eventId, partitions, partition, afterId, chunkSize);
+        if (bets.isEmpty()) {
+            return 0;
+        }
+        settleChunk(bets, winningSelection, batchId);
+        return bets.get(bets.size() - 1).getId();
+    }
+
+    public void settleChunk(List<Bet> bets, Selection winningSelection, String batchId) {
+        if (bets.isEmpty()) {
+            return;
+        }
+        // Status first: if another settler got to any of these bets, fail before crediting anyone
+        List<Long> ids = bets.stream().map(Bet::getId).toList();
+        int updated = betRepository.markSettled(
+                ids, winningSelection != null ? winningSelection.name() : null, batchId, Instant.now());
+        if (updated != bets.size()) {
+            throw new IllegalStateException("Bets changed during settlement: expected=" + bets.size()
+                    + ", updated=" + updated + ", batchId=" + batchId);
+        }
+
+        List<LedgerPosting> postings = new ArrayList<>();
+        Map<ExposureKey, BigDecimal> liabilityByKey = new LinkedHashMap<>();
+        for (Bet bet : bets) {
+            if (winningSelection == null) {
+                postings.add(LedgerPosting.refund(bet.getCustomerId(), bet.getStake(), "BET-" + bet.getId()));
+            } else if (bet.getSelection() == winningSelection) {
+                postings.add(LedgerPosting.payout(bet.getCustomerId(), bet.getPotentialPayout(), "BET-" + bet.getId()));
+            }
+            // Release exposure (liability = potentialPayout - stake), summed per selection
+            liabilityByKey.merge(
+                    new ExposureKey(bet.getEventId(), bet.getMarketType(), bet.getSelection()),
+                    bet.getPotentialPayout().subtract(bet.getStake()),
+                    BigDecimal::add);
+        }
+        ledgerService.postAll(postings);
+
+        riskReservationService.releaseSettled(liabilityByKey);
+
+        log.debug("Settled chunk: batchId={}, bets={}, postings={}, exposureKeys={}",
+                batchId, bets.size(), postings.size(), liabilityByKey.size());
+    }
+}
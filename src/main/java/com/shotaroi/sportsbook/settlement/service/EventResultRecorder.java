@@ -0,0 +1,57 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.domain.SettlementStatus;
+import com.shotaroi.sportsbook.settlement.entity.EventResult;
+import com.shotaroi.sportsbook.settlement.repository.EventResultRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Records event results in their own transactions, for settlement modes that commit
+ * progress before the whole event is settled.
+ */
+@Component
+public class EventResultRecorder {
+
+    private final EventResultRepository eventResultRepository;
+
+    public EventResultRecorder(EventResultRepository eventResultRepository) {
+        this.eventResultRepository = eventResultRepository;
+    }
+
+    /**
+     * Record the result as SETTLING with a fresh batch id, or return the existing result
+     * (SETTLING = an interrupted run or a concurrent open to resume, SETTLED = nothing to do).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public EventResult open(String eventId, Selection winningSelection) {
+        var existing = eventResultRepository.findByEventId(eventId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        // ON CONFLICT rather than catching the unique violation: the violation would abort this
+        // transaction, so the winner's row could no longer be read here
+        eventResultRepository.insertSettlingIfAbsent(
+                eventId, winningSelection != null ? winningSelection.name() : null, newBatchId());
+        return eventResultRepository.findByEventId(eventId)
+                .orElseThrow(() -> new IllegalStateException("Event result not found after insert: " + eventId));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markSettled(Long resultId) {
+        EventResult result = eventResultRepository.findById(resultId)
+                .orElseThrow(() -> new IllegalStateException("Event result not found: " + resultId));
+        result.setStatus(SettlementStatus.SETTLED);
+        result.setSettledAt(Instant.now());
+        eventResultRepository.save(result);
+    }
+
+    static String newBatchId() {
+        return "BATCH-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,30 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.common.idempotency.BinaryReader;
+import com.shotaroi.sportsbook.common.idempotency.BinaryWriter;
+import com.shotaroi.sportsbook.common.idempotency.ResponseCodec;
+import com.shotaroi.sportsbook.settlement.dto.PostResultResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stored result ingest response.
+ */
+@Component
+public class PostResultResponseCodec implements ResponseCodec<PostResultResponse> {
+
+    @Override
+    public Class<PostResultResponse> type() {
+        return PostResultResponse.class;
+    }
+
+    @Override
+    public void encode(PostResultResponse response, BinaryWriter out) {
+        out.putBoolean(response.success())
+                .putLong(response.jobId());
+    }
+
+    @Override
+    public PostResultResponse decode(BinaryReader in) {
+        return new PostResultResponse(in.getBoolean(), in.getLong());
+    }
+}
@@ -0,0 +1,119 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.domain.SettlementStatus;
+import com.shotaroi.sportsbook.settlement.config.SettlementProperties;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultRequest;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultResponse;
+import com.shotaroi.sportsbook.settlement.entity.EventResult;
+import com.shotaroi.sportsbook.settlement.repository.EventResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Batch result ingest: deduplicates against event_results in one query, then settles the
+ * remaining events concurrently, biggest first, each in its own transaction. With
+ * settlement.async.enabled the events are queued as settlement jobs instead, in the same order.
+ * A failure in one event does not affect the others.
+ */
+@Service
+public class ResultBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultBatchService.class);
+
+    private final SettlementService settlementService;
+    private final EventResultRepository eventResultRepository;
+    private final BetRepository betRepository;
+    private final SettlementWorkerPool settlementWorkerPool;
+    private final SettlementJobService settlementJobService;
+    private final SettlementProperties properties;
+
+    public ResultBatchService(SettlementService settlementService,
+                              EventResultRepository eventResultRepository,
+                              BetRepository betRepository,
+                              SettlementWorkerPool settlementWorkerPool,
+                              SettlementJobService settlementJobService,
+                              SettlementProperties properties) {
+        this.settlementService = settlementService;
+        this.eventResultRepository = eventResultRepository;
+        this.betRepository = betRepository;
+        this.settlementWorkerPool = settlementWorkerPool;
+        this.settlementJobService = settlementJobService;
+        this.properties = properties;
+    }
+
+    public BatchPostResultResponse postResults(BatchPostResultRequest request) {
+        // 1. Collapse repeats within the batch
+        Map<String, Selection> results = new LinkedHashMap<>();
+        for (BatchPostResultRequest.EventResultItem item : request.results()) {
+            if (results.containsKey(item.eventId()) && results.get(item.eventId()) != item.winningSelection()) {
+                throw new IllegalArgumentException("Conflicting results for eventId=" + item.eventId());
+            }
+            results.put(item.eventId(), item.winningSelection());
+        }
+
+        // 2. One query for results already recorded; SETTLING ones are resumed, not skipped
+        List<String> skipped = new ArrayList<>();
+        for (EventResult recorded : eventResultRepository.findByEventIdIn(results.keySet())) {
+            if (recorded.getStatus() == SettlementStatus.SETTLED) {
+                skipped.add(recorded.getEventId());
+                results.remove(recorded.getEventId());
+            }
+        }
+
+        // 3. Largest events first, so a big match does not start last and hold up the batch
+        Map<String, Long> betCounts = new HashMap<>();
+        if (!results.isEmpty()) {
+            for (BetRepository.EventBetCount c : betRepository.countBetsPerEvent(results.keySet(), BetStatus.PLACED)) {
+                betCounts.put(c.getEventId(), c.getBets());
+            }
+        }
+        List<String> order = new ArrayList<>(results.keySet());
+        order.sort(Comparator.comparing((String eventId) -> betCounts.getOrDefault(eventId, 0L)).reversed());
+
+        log.info("Batch result ingest: received={}, toSettle={}, skipped={}, placedBets={}",
+                request.results().size(), order.size(), skipped.size(),
+                betCounts.values().stream().mapToLong(Long::longValue).sum());
+
+        Map<String, String> failed = new ConcurrentHashMap<>();
+        if (properties.async().enabled()) {
+            // Jobs are claimed oldest first, so queueing in this order keeps largest first
+            Map<String, Long> queued = new LinkedHashMap<>();
+            for (String eventId : order) {
+                try {
+                    queued.put(eventId, settlementJobService.enqueue(eventId, results.get(eventId)));
+                } catch (RuntimeException e) {
+                    log.error("Batch enqueue failed for eventId={}", eventId, e);
+                    failed.put(eventId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                }
+            }
+            return new BatchPostResultResponse(request.results().size(), List.of(), skipped, Map.copyOf(failed), queued);
+        }
+
+        Queue<String> settled = new ConcurrentLinkedQueue<>();
+        settlementWorkerPool.runEach(order, properties.batch().concurrency(), eventId -> {
+            try {
+                settlementService.settle(eventId, results.get(eventId));
+                settled.add(eventId);
+            } catch (RuntimeException e) {
+                log.error("Batch settlement failed for eventId={}", eventId, e);
+                failed.put(eventId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        });
+
+        return new BatchPostResultResponse(request.results().size(), List.copyOf(settled), skipped, Map.copyOf(failed), Map.of());
+    }
+}
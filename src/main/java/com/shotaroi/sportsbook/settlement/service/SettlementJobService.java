@@ -0,0 +1,123 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.domain.SettlementJobStatus;
+import com.shotaroi.sportsbook.common.error.ResourceNotFoundException;
+import com.shotaroi.sportsbook.settlement.config.SettlementProperties;
+import com.shotaroi.sportsbook.settlement.dto.SettlementJobResponse;
+import com.shotaroi.sportsbook.settlement.entity.SettlementJob;
+import com.shotaroi.sportsbook.settlement.repository.EventResultRepository;
+import com.shotaroi.sportsbook.settlement.repository.SettlementJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * settlement_jobs lifecycle: QUEUED -> RUNNING (leased to a worker) -> DONE, or back to
+ * QUEUED after a failure until max-attempts, then FAILED. Posting the result again queues a
+ * FAILED job once more.
+ */
+@Service
+public class SettlementJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementJobService.class);
+
+    private final SettlementJobRepository jobRepository;
+    private final EventResultRepository eventResultRepository;
+    private final BetRepository betRepository;
+    private final SettlementProperties.Async properties;
+
+    public SettlementJobService(SettlementJobRepository jobRepository,
+                                EventResultRepository eventResultRepository,
+                                BetRepository betRepository,
+                                SettlementProperties properties) {
+        this.jobRepository = jobRepository;
+        this.eventResultRepository = eventResultRepository;
+        this.betRepository = betRepository;
+        this.properties = properties.async();
+    }
+
+    /**
+     * Queue settlement of an event. A FAILED job is queued again; an event whose job is
+     * queued, running or done keeps it as is. Returns the job id.
+     */
+    @Transactional
+    public Long enqueue(String eventId, Selection winningSelection) {
+        if (jobRepository.enqueue(eventId, winningSelection != null ? winningSelection.name() : null) == 0) {
+            log.info("Settlement job already queued, running or done for eventId={}", eventId);
+        }
+        return jobRepository.findByEventId(eventId)
+                .orElseThrow(() -> new IllegalStateException("Settlement job not found after enqueue: " + eventId))
+                .getId();
+    }
+
+    @Transactional
+    public Optional<SettlementJob> claimNext(String workerId) {
+        return jobRepository.claimNext(workerId, properties.leaseSeconds()).flatMap(jobRepository::findById);
+    }
+
+    /** Extend the worker's lease on a running job. False if another worker has taken it over. */
+    @Transactional
+    public boolean renewLease(Long jobId, String workerId) {
+        return jobRepository.renewLease(jobId, workerId, properties.leaseSeconds()) == 1;
+    }
+
+    /** Mark the job DONE. False (and nothing written) if the worker no longer holds it. */
+    @Transactional
+    public boolean complete(Long jobId, String workerId) {
+        if (jobRepository.complete(jobId, workerId) == 0) {
+            log.warn("Settlement job lease lost before completion: jobId={}, workerId={}", jobId, workerId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Requeue with a retry delay, or give up once max-attempts is reached. False (and nothing
+     * written) if the worker no longer holds the job.
+     */
+    @Transactional
+    public boolean fail(Long jobId, String workerId, String error) {
+        if (jobRepository.fail(jobId, workerId, error, properties.maxAttempts(), properties.retryDelaySeconds()) == 0) {
+            log.warn("Settlement job lease lost before failure was recorded: jobId={}, workerId={}", jobId, workerId);
+            return false;
+        }
+        SettlementJob job = load(jobId);
+        if (job.getStatus() == SettlementJobStatus.FAILED) {
+            log.error("Settlement job failed permanently: jobId={}, eventId={}, attempts={}",
+                    jobId, job.getEventId(), job.getAttempts());
+        }
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public SettlementJobResponse getStatus(String eventId) {
+        SettlementJob job = jobRepository.findByEventId(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("SettlementJob", eventId));
+        long settled = eventResultRepository.findByEventId(eventId)
+                .map(r -> r.getSettlementBatchId() != null ? betRepository.countBySettlementBatchId(r.getSettlementBatchId()) : 0L)
+                .orElse(0L);
+        long remaining = betRepository.countByEventIdAndStatus(eventId, BetStatus.PLACED);
+        return new SettlementJobResponse(
+                job.getId(),
+                job.getEventId(),
+                job.getStatus(),
+                job.getAttempts(),
+                settled,
+                remaining,
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getCompletedAt()
+        );
+    }
+
+    private SettlementJob load(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("SettlementJob", jobId));
+    }
+}
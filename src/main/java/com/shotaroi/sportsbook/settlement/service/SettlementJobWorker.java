@@ -0,0 +1,126 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.settlement.config.SettlementProperties;
+import com.shotaroi.sportsbook.settlement.entity.SettlementJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Drains settlement_jobs when settlement.async.enabled is set. Every poll, up to
+ * settlement.async.workers workers claim and run jobs until the queue is empty.
+ * Jobs are claimed through the database, so several nodes can run workers at once; a job
+ * left RUNNING by a node that died is picked up again when its lease expires, and the
+ * settlement itself resumes from the bets still PLACED. A live worker renews its lease while
+ * the job runs, and only the worker holding the lease may complete or fail the job.
+ */
+@Component
+public class SettlementJobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementJobWorker.class);
+
+    private final SettlementJobService jobService;
+    private final SettlementService settlementService;
+    private final SettlementWorkerPool settlementWorkerPool;
+    private final SettlementProperties.Async properties;
+    private final List<String> workerIds;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public SettlementJobWorker(SettlementJobService jobService,
+                               SettlementService settlementService,
+                               SettlementWorkerPool settlementWorkerPool,
+                               SettlementProperties properties) {
+        this.jobService = jobService;
+        this.settlementService = settlementService;
+        this.settlementWorkerPool = settlementWorkerPool;
+        this.properties = properties.async();
+        String instance = UUID.randomUUID().toString().substring(0, 8);
+        this.workerIds = IntStream.range(0, this.properties.workers())
+                .mapToObj(i -> "settlement-worker-" + instance + "-" + i)
+                .toList();
+    }
+
+    /**
+     * Starts a drain in the background and returns, so a long settlement never holds the
+     * shared scheduler thread (the exposure book flush runs on it too). Skipped while the
+     * previous drain is still running.
+     */
+    @Scheduled(fixedDelayString = "${settlement.async.poll-interval-ms:500}")
+    public void poll() {
+        if (!properties.enabled() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("settlement-drain").start(() -> {
+            try {
+                settlementWorkerPool.runEach(workerIds, workerIds.size(), this::drain);
+            } finally {
+                draining.set(false);
+            }
+        });
+    }
+
+    private void drain(String workerId) {
+        Optional<SettlementJob> claimed;
+        while ((claimed = claim(workerId)).isPresent()) {
+            run(claimed.get(), workerId);
+        }
+    }
+
+    private Optional<SettlementJob> claim(String workerId) {
+        try {
+            return jobService.claimNext(workerId);
+        } catch (RuntimeException e) {
+            log.error("Settlement job claim failed: workerId={}", workerId, e);
+            return Optional.empty();
+        }
+    }
+
+    private void run(SettlementJob job, String workerId) {
+        log.info("Settlement job started: jobId={}, eventId={}, attempt={}, workerId={}",
+                job.getId(), job.getEventId(), job.getAttempts(), workerId);
+        Thread heartbeat = Thread.ofVirtual()
+                .name("settlement-lease-" + job.getId())
+                .start(() -> renewLease(job.getId(), workerId));
+        try {
+            settlementService.settle(job.getEventId(), job.getWinningSelection());
+            if (jobService.complete(job.getId(), workerId)) {
+                log.info("Settlement job done: jobId={}, eventId={}", job.getId(), job.getEventId());
+            }
+        } catch (RuntimeException e) {
+            log.error("Settlement job failed: jobId={}, eventId={}, attempt={}",
+                    job.getId(), job.getEventId(), job.getAttempts(), e);
+            jobService.fail(job.getId(), workerId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            heartbeat.interrupt();
+        }
+    }
+
+    /**
+     * Renew the lease every third of lease-seconds while the job runs, so a settlement that
+     * takes longer than the lease is not claimed by a second worker. Stops when interrupted or
+     * once the lease is lost (complete/fail then write nothing).
+     */
+    private void renewLease(Long jobId, String workerId) {
+        long intervalMillis = Math.max(1, properties.leaseSeconds() * 1000 / 3);
+        try {
+            while (true) {
+                Thread.sleep(intervalMillis);
+                if (!jobService.renewLease(jobId, workerId)) {
+                    log.warn("Settlement job lease lost: jobId={}, workerId={}", jobId, workerId);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Job finished
+        } catch (RuntimeException e) {
+            log.error("Settlement job lease renewal failed: jobId={}, workerId={}", jobId, workerId, e);
+        }
+    }
+}
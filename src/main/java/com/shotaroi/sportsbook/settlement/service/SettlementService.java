@@ -6,10 +6,15 @@ import com.shotaroi.sportsbook.common.domain.BetStatus;
 import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
 import com.shotaroi.sportsbook.common.domain.LedgerReferenceType;
 import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.domain.SettlementStatus;
+import com.shotaroi.sportsbook.common.idempotency.Fingerprint;
+import com.shotaroi.sportsbook.common.idempotency.Fingerprintable;
 import com.shotaroi.sportsbook.common.idempotency.IdempotencyService;
 import com.shotaroi.sportsbook.common.util.MoneyUtil;
 import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
 import com.shotaroi.sportsbook.risk.service.RiskReservationService;
+import com.shotaroi.sportsbook.settlement.config.SettlementProperties;
 import com.shotaroi.sportsbook.settlement.dto.PostResultRequest;
 import com.shotaroi.sportsbook.settlement.dto.PostResultResponse;
 import com.shotaroi.sportsbook.settlement.entity.EventResult;
@@ -17,12 +22,15 @@ import com.shotaroi.sportsbook.settlement.repository.EventResultRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 /**
  * Settlement engine: idempotently record result, settle bets, credit/refund, release exposure.
@@ -37,21 +45,57 @@ public class SettlementService {
     private final LedgerService ledgerService;
     private final RiskReservationService riskReservationService;
     private final IdempotencyService idempotencyService;
+    private final BulkSettlementProcessor bulkSettlementProcessor;
+    private final EventResultRecorder eventResultRecorder;
+    private final SettlementWorkerPool settlementWorkerPool;
+    private final SettlementJobService settlementJobService;
+    private final SettlementProperties properties;
+    private final TransactionTemplate transactionTemplate;
 
     public SettlementService(EventResultRepository eventResultRepository,
                              BetRepository betRepository,
                              LedgerService ledgerService,
                              RiskReservationService riskReservationService,
-                             IdempotencyService idempotencyService) {
+                             IdempotencyService idempotencyService,
+                             BulkSettlementProcessor bulkSettlementProcessor,
+                             EventResultRecorder eventResultRecorder,
+                             SettlementWorkerPool settlementWorkerPool,
+                             SettlementJobService settlementJobService,
+                             SettlementProperties properties,
+                             TransactionTemplate transactionTemplate) {
         this.eventResultRepository = eventResultRepository;
         this.betRepository = betRepository;
         this.ledgerService = ledgerService;
         this.riskReservationService = riskReservationService;
         this.idempotencyService = idempotencyService;
+        this.bulkSettlementProcessor = bulkSettlementProcessor;
+        this.eventResultRecorder = eventResultRecorder;
+        this.settlementWorkerPool = settlementWorkerPool;
+        this.settlementJobService = settlementJobService;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
+    /**
+     * Runs without a surrounding transaction: PER_BET/BULK settle inside the idempotency
+     * transaction, while the chunked modes commit per chunk on their own connections and
+     * must not pin one more for the whole run.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PostResultResponse postResult(String eventId, PostResultRequest request, String idempotencyKey) {
+        if (!properties.async().enabled() && isChunked()) {
+            // The key is stored once settlement completes; a failed run stores nothing and a
+            // retry resumes the SETTLING result. A replay settles nothing, open() finds SETTLED.
+            settleChunked(eventId, request.winningSelection());
+            return idempotencyService.execute(
+                    IdempotencyScope.RESULT_INGEST,
+                    eventId,
+                    idempotencyKey,
+                    new ResultIngestRequest(eventId, request),
+                    PostResultResponse.class,
+                    PostResultResponse::ok
+            );
+        }
         return idempotencyService.execute(
                 IdempotencyScope.RESULT_INGEST,
                 eventId,
@@ -59,37 +103,136 @@ public class SettlementService {
                 new ResultIngestRequest(eventId, request),
                 PostResultResponse.class,
                 () -> {
+                    if (properties.async().enabled()) {
+                        return PostResultResponse.queued(settlementJobService.enqueue(eventId, request.winningSelection()));
+                    }
                     doPostResult(eventId, request);
                     return PostResultResponse.ok();
                 }
         );
     }
 
+    /**
+     * Record and settle one event without an idempotency key; a result already recorded for
+     * the event is skipped. Used by batch ingest, which deduplicates against event_results,
+     * and by settlement job workers. PER_BET/BULK run in one transaction, the chunked modes
+     * without one.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void settle(String eventId, Selection winningSelection) {
+        if (isChunked()) {
+            settleChunked(eventId, winningSelection);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(
+                status -> doPostResult(eventId, new PostResultRequest(winningSelection)));
+    }
+
+    private boolean isChunked() {
+        return properties.mode() == SettlementProperties.Mode.STREAMING
+                || properties.mode() == SettlementProperties.Mode.PARALLEL;
+    }
+
+    /** PER_BET and BULK: the whole event in the caller's transaction. */
     private void doPostResult(String eventId, PostResultRequest request) {
         // 1. Idempotently record result (unique by eventId)
         EventResult result = eventResultRepository.findByEventId(eventId).orElse(null);
-        if (result != null) {
+        if (result != null && result.getStatus() == SettlementStatus.SETTLED) {
             log.info("Result already recorded for eventId={}, skipping (idempotent)", eventId);
             return;
         }
-
-        result = new EventResult();
-        result.setEventId(eventId);
-        result.setWinningSelection(request.winningSelection());
-        result.setResultVersion(1L);
+        if (result == null) {
+            result = new EventResult();
+            result.setEventId(eventId);
+            result.setWinningSelection(request.winningSelection());
+            result.setResultVersion(1L);
+            result.setSettlementBatchId(EventResultRecorder.newBatchId());
+        } else {
+            // Left SETTLING by an interrupted STREAMING run: finish it under its own result and batch id
+            log.info("Resuming settlement for eventId={}, batchId={}", eventId, result.getSettlementBatchId());
+        }
+        result.setStatus(SettlementStatus.SETTLED);
         result.setSettledAt(Instant.now());
         eventResultRepository.save(result);
 
+        Selection winningSelection = result.getWinningSelection();
+        String batchId = result.getSettlementBatchId();
+
         // 2. Find all PLACED bets for event
         List<Bet> bets = betRepository.findByEventIdAndStatus(eventId, BetStatus.PLACED);
-        String batchId = "BATCH-" + UUID.randomUUID();
 
-        log.info("Settling eventId={}, batchId={}, bets={}, result={}",
-                eventId, batchId, bets.size(), request.winningSelection());
+        log.info("Settling eventId={}, batchId={}, bets={}, result={}, mode={}",
+                eventId, batchId, bets.size(), winningSelection, properties.mode());
 
+        if (properties.mode() == SettlementProperties.Mode.BULK) {
+            int chunkSize = properties.chunkSize();
+            for (int from = 0; from < bets.size(); from += chunkSize) {
+                List<Bet> chunk = bets.subList(from, Math.min(from + chunkSize, bets.size()));
+                bulkSettlementProcessor.settleChunk(chunk, winningSelection, batchId);
+            }
+            return;
+        }
+        Map<ExposureKey, BigDecimal> liabilityByKey = new LinkedHashMap<>();
         for (Bet bet : bets) {
-            settleBet(bet, request.winningSelection(), batchId);
+            settleBet(bet, winningSelection, batchId);
+            // Liability = potentialPayout - stake, released once per selection below
+            liabilityByKey.merge(
+                    new ExposureKey(bet.getEventId(), bet.getMarketType(), bet.getSelection()),
+                    bet.getPotentialPayout().subtract(bet.getStake()),
+                    BigDecimal::add);
         }
+        riskReservationService.releaseSettled(liabilityByKey);
+    }
+
+    /**
+     * STREAMING: the result is committed as SETTLING first, then bets are settled in keyset
+     * chunks that each commit on their own. Only one chunk is ever on the heap. If the run
+     * dies, the next post for the event resumes with the same batch id: settled bets are no
+     * longer PLACED, so the scan simply continues with what is left.
+     * PARALLEL does the same per customer_id partition on the worker pool, and the result
+     * is only marked SETTLED once every partition has finished.
+     * Called outside any transaction, so no connection is held while the partitions run.
+     */
+    private void settleChunked(String eventId, Selection requestedSelection) {
+        int partitions = properties.mode() == SettlementProperties.Mode.PARALLEL
+                ? properties.parallel().partitions()
+                : 1;
+        EventResult result = eventResultRecorder.open(eventId, requestedSelection);
+        if (result.getStatus() == SettlementStatus.SETTLED) {
+            log.info("Result already recorded for eventId={}, skipping (idempotent)", eventId);
+            return;
+        }
+        Selection winningSelection = result.getWinningSelection();
+        String batchId = result.getSettlementBatchId();
+        log.info("Chunked settlement eventId={}, batchId={}, result={}, partitions={}, alreadySettled={}",
+                eventId, batchId, winningSelection, partitions, betRepository.countBySettlementBatchId(batchId));
+
+        if (partitions == 1) {
+            settlePartition(eventId, winningSelection, batchId, 1, 0);
+        } else {
+            settlementWorkerPool.runPartitions(partitions,
+                    partition -> settlePartition(eventId, winningSelection, batchId, partitions, partition));
+        }
+
+        // Rows skipped because another settler held them (and then rolled back) are still PLACED
+        long remaining = betRepository.countByEventIdAndStatus(eventId, BetStatus.PLACED);
+        if (remaining > 0) {
+            throw new IllegalStateException("Settlement incomplete for eventId=" + eventId
+                    + ": " + remaining + " bets still PLACED; post the result again to resume");
+        }
+        eventResultRecorder.markSettled(result.getId());
+        log.info("Chunked settlement done eventId={}, batchId={}, settled={}",
+                eventId, batchId, betRepository.countBySettlementBatchId(batchId));
+    }
+
+    private void settlePartition(String eventId, Selection winningSelection, String batchId, int partitions, int partition) {
+        int chunks = 0;
+        long afterId = 0;
+        while ((afterId = bulkSettlementProcessor.settleNextChunk(
+                eventId, winningSelection, batchId, partitions, partition, afterId, properties.chunkSize())) > 0) {
+            chunks++;
+        }
+        log.debug("Partition settled eventId={}, partition={}/{}, chunks={}", eventId, partition, partitions, chunks);
     }
 
     private void settleBet(Bet bet, Selection winningSelection, String batchId) {
@@ -109,20 +252,18 @@ public class SettlementService {
             newStatus = BetStatus.SETTLED_LOST;
         }
 
-        // Release exposure (liability = potentialPayout - stake)
-        BigDecimal liability = bet.getPotentialPayout().subtract(bet.getStake());
-        riskReservationService.releaseLiability(
-                bet.getEventId(),
-                bet.getMarketType(),
-                bet.getSelection(),
-                liability
-        );
-
         bet.setStatus(newStatus);
         bet.setSettledAt(settledAt);
         bet.setSettlementBatchId(batchId);
         betRepository.save(bet);
     }
 
-    private record ResultIngestRequest(String eventId, PostResultRequest request) {}
+    private record ResultIngestRequest(String eventId, PostResultRequest request) implements Fingerprintable {
+
+        @Override
+        public void fingerprint(Fingerprint fingerprint) {
+            fingerprint.putString(eventId)
+                    .putEnum(request.winningSelection());
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.settlement.config.SettlementProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Threads for PARALLEL settlement and batch result ingest. Virtual threads by default (partitions mostly wait on
+ * the database); a fixed pool of settlement.parallel.partitions platform threads otherwise.
+ * Kept out of the context as a bean so it does not replace Boot's applicationTaskExecutor.
+ */
+@Component
+public class SettlementWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementWorkerPool.class);
+
+    private final ExecutorService executor;
+
+    public SettlementWorkerPool(SettlementProperties properties, DataSource dataSource) {
+        SettlementProperties.Parallel parallel = properties.parallel();
+        this.executor = parallel.virtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("settlement-", 0).factory())
+                : Executors.newFixedThreadPool(parallel.partitions(), Thread.ofPlatform().name("settlement-", 0).factory());
+        checkPoolSize(properties, dataSource);
+    }
+
+    /**
+     * Every busy PARALLEL partition holds a connection, and batch ingest settles batch.concurrency
+     * events at once, so a batch needs up to partitions x batch.concurrency connections. Past the
+     * Hikari pool the partitions queue on it and can time out, which the settlement then reports as failed.
+     */
+    private static void checkPoolSize(SettlementProperties properties, DataSource dataSource) {
+        if (properties.mode() != SettlementProperties.Mode.PARALLEL || !(dataSource instanceof HikariDataSource hikari)) {
+            return;
+        }
+        int partitions = properties.parallel().partitions();
+        int needed = partitions * properties.batch().concurrency();
+        if (needed > hikari.getMaximumPoolSize()) {
+            log.warn("settlement.parallel.partitions ({}) x settlement.batch.concurrency ({}) = {} connections "
+                            + "exceeds hikari maximum-pool-size ({}); batch ingest will queue on the pool",
+                    partitions, properties.batch().concurrency(), needed, hikari.getMaximumPoolSize());
+        }
+    }
+
+    /**
+     * Run task(0..partitions-1) concurrently and wait for all of them (the per-event barrier).
+     * Rethrows the first failure once every partition has finished.
+     */
+    public void runPartitions(int partitions, IntConsumer task) {
+        CompletableFuture<?>[] futures = IntStream.range(0, partitions)
+                .mapToObj(p -> CompletableFuture.runAsync(() -> task.accept(p), executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run task for every item with at most concurrency items in flight, in list order, and
+     * wait for all of them. Uses its own virtual threads, so a task may itself call
+     * {@link #runPartitions} without starving the partition pool. The task handles its own failures.
+     */
+    public <T> void runEach(List<T> items, int concurrency, Consumer<T> task) {
+        Queue<T> queue = new ConcurrentLinkedQueue<>(items);
+        try (ExecutorService workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("settlement-batch-", 0).factory())) {
+            for (int i = 0; i < Math.min(concurrency, items.size()); i++) {
+                workers.execute(() -> {
+                    T item;
+                    while ((item = queue.poll()) != null) {
+                        task.accept(item);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
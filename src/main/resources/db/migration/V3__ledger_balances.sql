@@ -0,0 +1,17 @@
+-- Running balance per customer and currency, updated in the same transaction as every
+-- ledger append. ledger_entries stays the source of truth; this is a derived snapshot
+-- that lets balance reads avoid aggregating the customer's whole history.
+CREATE TABLE ledger_balances (
+    id              BIGSERIAL PRIMARY KEY,
+    customer_id     BIGINT NOT NULL REFERENCES customers(id) ON DELETE RESTRICT,
+    currency        VARCHAR(3) NOT NULL DEFAULT 'SEK',
+    balance         NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    UNIQUE (customer_id, currency)
+);
+
+-- Backfill from existing entries
+INSERT INTO ledger_balances (customer_id, currency, balance)
+SELECT customer_id, currency, SUM(CASE WHEN type = 'DEBIT' THEN -amount ELSE amount END)
+FROM ledger_entries
+GROUP BY customer_id, currency;
@@ -0,0 +1,10 @@
+-- Settlement progress per event. STREAMING settlement commits after every chunk, so a
+-- result can be recorded while its bets are still being settled; the batch id is kept
+-- so an interrupted run resumes under the same id.
+ALTER TABLE event_results
+    ADD COLUMN status              VARCHAR(20) NOT NULL DEFAULT 'SETTLED',  -- SETTLING, SETTLED
+    ADD COLUMN settlement_batch_id VARCHAR(255);
+
+-- Keyset scan of an event's PLACED bets in id order (replaces the (event_id, status) index)
+DROP INDEX idx_bets_event_status;
+CREATE INDEX idx_bets_event_status_id ON bets(event_id, status, id);
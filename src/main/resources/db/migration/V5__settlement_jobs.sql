@@ -0,0 +1,16 @@
+-- Asynchronous settlement: one job per event, drained by database-backed workers.
+-- A RUNNING job whose lease has expired (worker died or restarted) is claimed again.
+CREATE TABLE settlement_jobs (
+    id                  BIGSERIAL PRIMARY KEY,
+    event_id            VARCHAR(255) NOT NULL UNIQUE,
+    winning_selection   VARCHAR(50),                    -- NULL = VOID
+    status              VARCHAR(20) NOT NULL,           -- QUEUED, RUNNING, DONE, FAILED
+    attempts            INT NOT NULL DEFAULT 0,
+    locked_by           VARCHAR(255),
+    locked_until        TIMESTAMP WITH TIME ZONE,
+    last_error          TEXT,
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    completed_at        TIMESTAMP WITH TIME ZONE
+);
+CREATE INDEX idx_settlement_jobs_claimable ON settlement_jobs(status, id) WHERE status IN ('QUEUED', 'RUNNING');
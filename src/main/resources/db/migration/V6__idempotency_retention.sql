@@ -0,0 +1,5 @@
+-- Idempotency retention: expired keys are purged in batches by scope, oldest first.
+-- idx_idempotency_lookup duplicated the index behind UNIQUE (scope, scope_id, idempotency_key)
+-- and doubled the write and vacuum cost of every insert and purge.
+DROP INDEX IF EXISTS idx_idempotency_lookup;
+CREATE INDEX idx_idempotency_scope_created ON idempotency_keys(scope, created_at);
@@ -0,0 +1,3 @@
+-- Compact binary responses for types with a ResponseCodec; response_json stays for other
+-- types and for keys written before this migration.
+ALTER TABLE idempotency_keys ADD COLUMN response_bytes BYTEA;
@@ -3,8 +3,13 @@ package com.shotaroi.sportsbook.betting;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shotaroi.sportsbook.AbstractIntegrationTest;
 import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetResponse;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
 import com.shotaroi.sportsbook.common.domain.MarketType;
 import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.error.ConcurrentIdempotentRequestException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -13,7 +18,16 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,6 +39,10 @@ class BetPlacementIntegrationTest extends AbstractIntegrationTest {
     MockMvc mockMvc;
     @Autowired
     ObjectMapper objectMapper;
+    @Autowired
+    BetService betService;
+    @Autowired
+    BetRepository betRepository;
 
     @Test
     void placeBet_success() throws Exception {
@@ -88,6 +106,35 @@ class BetPlacementIntegrationTest extends AbstractIntegrationTest {
         // We'd need to query - for now just verify we get 200 and same structure
     }
 
+    @Test
+    void placeBet_concurrentSameKey_placesOneBet() throws Exception {
+        PlaceBetRequest request = new PlaceBetRequest(1L, "evt-idem-race", MarketType.MATCH_WINNER, Selection.AWAY,
+                new BigDecimal("2.0"), new BigDecimal("10"));
+        Set<Long> betIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger rolledBack = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        PlaceBetResponse response = betService.placeBet(request, "idem-race-1");
+                        betIds.add(response.betId());
+                    } catch (ConcurrentIdempotentRequestException e) {
+                        rolledBack.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+
+        // Losers of the insert race are rolled back; everyone else got the stored response
+        assertThat(betIds).hasSize(1);
+        assertThat(betRepository.findByEventIdAndStatus("evt-idem-race", BetStatus.PLACED)).hasSize(1);
+        assertThat(betService.placeBet(request, "idem-race-1").betId()).isEqualTo(betIds.iterator().next());
+    }
+
     private String getJwtToken() throws Exception {
         var result = mockMvc.perform(post("/api/auth/token")
                         .contentType(MediaType.APPLICATION_JSON)
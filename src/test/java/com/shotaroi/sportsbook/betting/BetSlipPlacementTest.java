@@ -0,0 +1,92 @@
+package com.shotaroi.sportsbook.betting;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipRequest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipRequest.SlipBet;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetSlipResponse;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.RiskDecision;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.error.InsufficientFundsException;
+import com.shotaroi.sportsbook.ledger.repository.LedgerEntryRepository;
+import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.risk.dto.RiskLimitRequest;
+import com.shotaroi.sportsbook.risk.service.RiskLimitService;
+import com.shotaroi.sportsbook.risk.service.RiskReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A bet slip is placed in one transaction with one decision per bet.
+ */
+class BetSlipPlacementTest extends AbstractIntegrationTest {
+
+    @Autowired
+    BetService betService;
+    @Autowired
+    BetRepository betRepository;
+    @Autowired
+    LedgerService ledgerService;
+    @Autowired
+    LedgerEntryRepository ledgerRepository;
+    @Autowired
+    RiskLimitService riskLimitService;
+    @Autowired
+    RiskReservationService riskReservationService;
+
+    @Test
+    void slip_decidesEachBetAgainstTheLiabilityOfEarlierBets() {
+        String eventId = "evt-slip";
+        riskLimitService.setLimit(new RiskLimitRequest(
+                "EVENT_MARKET_SELECTION", eventId + "|MATCH_WINNER|HOME", new BigDecimal("150"), null));
+        BigDecimal balanceBefore = ledgerService.getBalance(1L);
+
+        PlaceBetSlipResponse response = betService.placeSlip(new PlaceBetSlipRequest(1L, List.of(
+                bet(eventId, Selection.HOME, "2.00", "100"),   // liability 100
+                bet(eventId, Selection.AWAY, "3.00", "20"),
+                bet(eventId, Selection.HOME, "2.00", "100"),   // only 50 left
+                bet(eventId, Selection.HOME, "2.00", "10")     // none left
+        )), "slip-" + System.nanoTime());
+
+        assertThat(response.bets()).extracting(b -> b.decision()).containsExactly(
+                RiskDecision.ACCEPT, RiskDecision.ACCEPT, RiskDecision.ACCEPT_WITH_LIMIT, RiskDecision.REJECT);
+        assertThat(response.bets().get(2).acceptedStake()).isEqualByComparingTo("50");
+        assertThat(response.bets().get(3).betId()).isNull();
+        assertThat(response.totalStake()).isEqualByComparingTo("170");
+
+        assertThat(betRepository.findById(response.bets().get(1).betId())).isPresent();
+        assertThat(riskReservationService.getReservedLiability(eventId, MarketType.MATCH_WINNER, Selection.HOME))
+                .isEqualByComparingTo("150");
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(balanceBefore.subtract(new BigDecimal("170")));
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(ledgerRepository.sumBalanceByCustomerId(1L));
+    }
+
+    @Test
+    void slip_overBalance_placesNothing() {
+        String eventId = "evt-slip-funds";
+        BigDecimal balance = ledgerService.getBalance(1L);
+        long betsBefore = betRepository.count();
+
+        assertThatThrownBy(() -> betService.placeSlip(new PlaceBetSlipRequest(1L, List.of(
+                bet(eventId, Selection.HOME, "1.50", "10"),
+                bet(eventId, Selection.DRAW, "3.20", balance.toPlainString())
+        )), "slip-funds-" + System.nanoTime())).isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(betRepository.count()).isEqualTo(betsBefore);
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(balance);
+        assertThat(riskReservationService.getReservedLiability(eventId, MarketType.MATCH_WINNER, Selection.HOME))
+                .isEqualByComparingTo("0");
+    }
+
+    private static SlipBet bet(String eventId, Selection selection, String odds, String stake) {
+        return new SlipBet(eventId, MarketType.MATCH_WINNER, selection, new BigDecimal(odds), new BigDecimal(stake));
+    }
+}
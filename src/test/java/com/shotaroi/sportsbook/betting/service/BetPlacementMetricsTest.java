@@ -0,0 +1,48 @@
+package com.shotaroi.sportsbook.betting.service;
+
+import com.shotaroi.sportsbook.betting.service.BetPlacementMetrics.Outcome;
+import com.shotaroi.sportsbook.betting.service.BetPlacementMetrics.Stage;
+import com.shotaroi.sportsbook.common.domain.RiskDecision;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BetPlacementMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final BetPlacementMetrics metrics = new BetPlacementMetrics(registry);
+
+    @Test
+    void record_tagsCompletedStagesWithFinalDecision() {
+        BetPlacementMetrics.Trace trace = metrics.start();
+        trace.mark();
+        trace.lap(Stage.CUSTOMER_CHECK);
+        trace.mark();
+        trace.lap(Stage.RISK_EVALUATE);
+        trace.decision(RiskDecision.ACCEPT_WITH_LIMIT);
+
+        metrics.record(trace, Outcome.PLACED);
+
+        assertEquals(1, stageCount("customer_check", "ACCEPT_WITH_LIMIT"));
+        assertEquals(1, stageCount("risk_evaluate", "ACCEPT_WITH_LIMIT"));
+        assertEquals(0, stageCount("reserve", "ACCEPT_WITH_LIMIT"));
+        assertEquals(1, registry.get("sportsbook.bet.placement")
+                .tag("decision", "ACCEPT_WITH_LIMIT").tag("outcome", "placed").timer().count());
+    }
+
+    @Test
+    void record_failureBeforeRiskEngine_isTaggedNone() {
+        metrics.record(metrics.start(), Outcome.ERROR);
+
+        assertEquals(1, registry.get("sportsbook.bet.placement")
+                .tag("decision", "NONE").tag("outcome", "error").timer().count());
+        assertEquals(0, stageCount("customer_check", "NONE"));
+    }
+
+    private long stageCount(String stage, String decision) {
+        return registry.get("sportsbook.bet.placement.stage")
+                .tag("stage", stage).tag("decision", decision).timer().count();
+    }
+}
@@ -0,0 +1,58 @@
+package com.shotaroi.sportsbook.betting.service;
+
+import com.shotaroi.sportsbook.betting.config.BettingProperties;
+import com.shotaroi.sportsbook.betting.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    void exists_cachesFoundCustomersOnly() {
+        CustomerCache cache = cache(Set.of(1L), 10);
+
+        assertTrue(cache.exists(1L));
+        assertTrue(cache.exists(1L));
+        assertFalse(cache.exists(2L));
+        assertFalse(cache.exists(2L));
+
+        assertEquals(3, lookups.get());  // 1 once, 2 every time
+    }
+
+    @Test
+    void exists_evictsLeastRecentlyUsedBeyondMaxEntries() {
+        CustomerCache cache = cache(Set.of(1L, 2L, 3L), 2);
+        cache.exists(1L);
+        cache.exists(2L);
+        cache.exists(1L);  // 1 is now more recent than 2
+        cache.exists(3L);
+        lookups.set(0);
+
+        cache.exists(1L);
+        cache.exists(3L);
+        assertEquals(0, lookups.get());
+        cache.exists(2L);
+        assertEquals(1, lookups.get());
+    }
+
+    private CustomerCache cache(Set<Long> customers, int maxEntries) {
+        CustomerRepository repository = (CustomerRepository) Proxy.newProxyInstance(
+                CustomerRepository.class.getClassLoader(), new Class<?>[]{CustomerRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("existsById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    lookups.incrementAndGet();
+                    return customers.contains((Long) args[0]);
+                });
+        return new CustomerCache(new BettingProperties(new BettingProperties.CustomerCache(true, maxEntries, false)),
+                repository, null);
+    }
+}
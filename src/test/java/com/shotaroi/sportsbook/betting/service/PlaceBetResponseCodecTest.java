@@ -0,0 +1,37 @@
+package com.shotaroi.sportsbook.betting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetResponse;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.RiskDecision;
+import com.shotaroi.sportsbook.common.idempotency.BinaryCodecs;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceBetResponseCodecTest {
+
+    private final PlaceBetResponseCodec codec = new PlaceBetResponseCodec();
+
+    @Test
+    void roundTrip_placedBet() throws Exception {
+        PlaceBetResponse placed = new PlaceBetResponse(123456L, BetStatus.PLACED,
+                new BigDecimal("25.00"), new BigDecimal("53.75"), RiskDecision.ACCEPT_WITH_LIMIT);
+
+        byte[] bytes = BinaryCodecs.encode(codec, placed);
+
+        assertEquals(placed, BinaryCodecs.decode(codec, bytes));
+        int jsonSize = new ObjectMapper().writeValueAsBytes(placed).length;
+        assertTrue(bytes.length * 2 < jsonSize, "encoded " + bytes.length + " bytes, JSON " + jsonSize);
+    }
+
+    @Test
+    void roundTrip_rejectedBetWithNullsAndLargeDecimal() {
+        PlaceBetResponse rejected = new PlaceBetResponse(null, null,
+                new BigDecimal("0"), new BigDecimal("123456789012345678901234.5678"), RiskDecision.REJECT);
+
+        assertEquals(rejected, BinaryCodecs.decode(codec, BinaryCodecs.encode(codec, rejected)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.shotaroi.sportsbook.common;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.common.idempotency.IdempotencyPurgeJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keys past their scope's TTL are purged in batches; younger keys are kept.
+ */
+@TestPropertySource(properties = "idempotency.retention.batch-size=2")
+class IdempotencyPurgeTest extends AbstractIntegrationTest {
+
+    @Autowired
+    IdempotencyPurgeJob purgeJob;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void purge_deletesOnlyKeysOlderThanTheirScopeTtl() {
+        insert("BET_PLACEMENT", "purge-bet-old-", 5, "2 days");      // TTL 1d: expired
+        insert("BET_PLACEMENT", "purge-bet-new-", 2, "1 hour");
+        insert("RESULT_INGEST", "purge-result-", 3, "2 days");       // TTL 30d: kept
+
+        purgeJob.purge();
+
+        assertThat(count("purge-bet-old-%")).isZero();
+        assertThat(count("purge-bet-new-%")).isEqualTo(2);
+        assertThat(count("purge-result-%")).isEqualTo(3);
+    }
+
+    private void insert(String scope, String prefix, int n, String age) {
+        for (int i = 0; i < n; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO idempotency_keys (scope, scope_id, idempotency_key, request_hash, status, created_at)
+                    VALUES (?, 'purge', ?, 'hash', 'COMPLETED', NOW() - CAST(? AS INTERVAL))
+                    """, scope, prefix + i, age);
+        }
+    }
+
+    private int count(String keyPattern) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key LIKE ?", Integer.class, keyPattern);
+    }
+}
@@ -0,0 +1,48 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerprintTest {
+
+    @Test
+    void placeBetRequest_fingerprintIsPinned() {
+        // Stored request hashes depend on this value: it must not change between versions
+        assertEquals("510865f7d6fe160eaa02ae6a80dcda1f915ae6b41b93a0615336a1d854abc352", Fingerprint.of(bet("2.15", "25.00")));
+    }
+
+    @Test
+    void decimals_areHashedByValue() {
+        assertEquals(Fingerprint.of(bet("2.15", "25.00")), Fingerprint.of(bet("2.150", "25")));
+        assertNotEquals(Fingerprint.of(bet("2.15", "25.00")), Fingerprint.of(bet("2.15", "25.01")));
+    }
+
+    @Test
+    void fieldBoundaries_areUnambiguous() {
+        Fingerprintable ab = fp -> fp.putString("ab").putString("c");
+        Fingerprintable a = fp -> fp.putString("a").putString("bc");
+        Fingerprintable nullValue = fp -> fp.putString(null).putString("c");
+        Fingerprintable empty = fp -> fp.putString("").putString("c");
+        assertNotEquals(Fingerprint.of(ab), Fingerprint.of(a));
+        assertNotEquals(Fingerprint.of(nullValue), Fingerprint.of(empty));
+    }
+
+    @Test
+    void nonAsciiStrings_areEncodedAsUtf8() {
+        Fingerprintable accented = fp -> fp.putString("évt-1");
+        Fingerprintable plain = fp -> fp.putString("evt-1");
+        assertNotEquals(Fingerprint.of(accented), Fingerprint.of(plain));
+        assertEquals(64, Fingerprint.of(accented).length());
+    }
+
+    private static PlaceBetRequest bet(String odds, String stake) {
+        return new PlaceBetRequest(1L, "evt-1", MarketType.MATCH_WINNER, Selection.HOME,
+                new BigDecimal(odds), new BigDecimal(stake));
+    }
+}
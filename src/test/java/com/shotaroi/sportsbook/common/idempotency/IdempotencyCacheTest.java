@@ -0,0 +1,57 @@
+package com.shotaroi.sportsbook.common.idempotency;
+
+import com.shotaroi.sportsbook.common.domain.IdempotencyScope;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private static final IdempotencyScope SCOPE = IdempotencyScope.BET_PLACEMENT;
+
+    @Test
+    void bloomFilter_hasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(SCOPE.name(), "1", "key-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(SCOPE.name(), "1", "key-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(SCOPE.name(), "2", "key-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void completed_isServedUntilEvictedAsLeastRecentlyUsed() {
+        IdempotencyCache cache = cache(2);
+        cache.completedAfterCommit(SCOPE, "1", "a", "hash-a", "response-a");
+        cache.completedAfterCommit(SCOPE, "1", "b", "hash-b", "response-b");
+        cache.get(SCOPE, "1", "a");  // a is now more recent than b
+        cache.completedAfterCommit(SCOPE, "1", "c", "hash-c", "response-c");
+
+        assertEquals("response-a", cache.get(SCOPE, "1", "a").response());
+        assertEquals("hash-c", cache.get(SCOPE, "1", "c").requestHash());
+        assertNull(cache.get(SCOPE, "1", "b"));
+    }
+
+    @Test
+    void mightExist_isTrueWhileFilterNotLoaded() {
+        assertTrue(cache(10).mightExist(SCOPE, "1", "never-seen"));
+    }
+
+    private static IdempotencyCache cache(int maxEntries) {
+        return new IdempotencyCache(new IdempotencyProperties(
+                new IdempotencyProperties.Cache(true, maxEntries, 600),
+                new IdempotencyProperties.Filter(true, 1000, 0.01),
+                new IdempotencyProperties.Retention(false, Map.of(), Duration.ofDays(7), 1000, 100, 60_000)), null, null);
+    }
+}
@@ -0,0 +1,46 @@
+package com.shotaroi.sportsbook.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointMoneyTest {
+
+    @Test
+    void payout_matchesBigDecimalHalfUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal stake = BigDecimal.valueOf(1 + random.nextInt(10_000_000), 2);
+            BigDecimal odds = BigDecimal.valueOf(1001 + random.nextInt(100_000), 3);
+            long payout = FixedPointMoney.payout(MoneyUtil.toMinorUnits(stake), FixedPointMoney.toOdds(odds));
+            assertEquals(MoneyUtil.potentialPayout(stake, odds), MoneyUtil.fromMinorUnits(payout), stake + " @ " + odds);
+        }
+    }
+
+    @Test
+    void payout_roundsHalfUp() {
+        assertEquals(126, FixedPointMoney.payout(125, 1004));  // 1.255 -> 1.26
+        assertEquals(125, FixedPointMoney.payout(125, 1003));  // 1.25375 -> 1.25
+        assertEquals(85, FixedPointMoney.liability(100, 1850));
+    }
+
+    @Test
+    void mulDivDown_roundsDownAndSurvivesOverflow() {
+        assertEquals(5882, FixedPointMoney.mulDivDown(5000, 10000, 8500));  // 58.82 of a 100 stake fits 50 liability at 1.85
+        long a = 4_000_000_000_003L;
+        long b = 1_000_000_007L;
+        assertEquals(BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b)).divide(BigDecimal.valueOf(1000), RoundingMode.DOWN)
+                .longValueExact(), FixedPointMoney.mulDivDown(a, b, 1000));
+    }
+
+    @Test
+    void payout_overflowThrows() {
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.payout(Long.MAX_VALUE / 2, 2000));
+        // stake * odds fits, adding the rounding half does not
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.payout(Long.MAX_VALUE, 1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.shotaroi.sportsbook.common.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final BulkheadFilter filter = new BulkheadFilter(
+            new BulkheadProperties(true, 1, Duration.ofMillis(50)), null, new ObjectMapper(), registry);
+
+    @Test
+    void requestBeyondPermits_isShedWith503() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(request("/api/bets"), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.get("sportsbook.http.bulkhead.active").gauge().value());
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(request("/api/bets"), shed, new MockFilterChain());
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get("sportsbook.http.bulkhead.rejected").counter().count());
+
+        release.countDown();
+        holder.join(5000);
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(request("/api/bets"), next, new MockFilterChain());
+        assertEquals(200, next.getStatus());
+    }
+
+    @Test
+    void actuatorIsNotLimited() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(request("/admin/events/results"), new MockHttpServletResponse(), (req, res) -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            MockHttpServletResponse health = new MockHttpServletResponse();
+            filter.doFilter(request("/actuator/health"), health, new MockFilterChain());
+            assertEquals(200, health.getStatus());
+        } finally {
+            release.countDown();
+            holder.join(5000);
+        }
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("POST", uri);
+    }
+}
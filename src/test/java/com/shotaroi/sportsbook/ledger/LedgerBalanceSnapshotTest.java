@@ -0,0 +1,96 @@
+package com.shotaroi.sportsbook.ledger;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.entity.Customer;
+import com.shotaroi.sportsbook.betting.repository.CustomerRepository;
+import com.shotaroi.sportsbook.common.error.InsufficientFundsException;
+import com.shotaroi.sportsbook.ledger.dto.LedgerPosting;
+import com.shotaroi.sportsbook.ledger.repository.LedgerEntryRepository;
+import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The running balance in ledger_balances must always equal the sum over ledger_entries.
+ */
+class LedgerBalanceSnapshotTest extends AbstractIntegrationTest {
+
+    @Autowired
+    LedgerService ledgerService;
+    @Autowired
+    LedgerEntryRepository ledgerRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Test
+    void snapshotTracksAppends() {
+        BigDecimal before = ledgerService.getBalance(1L);
+
+        ledgerService.debitStake(1L, new BigDecimal("100"), "BET-snap-1");
+        ledgerService.creditPayout(1L, new BigDecimal("185"), "BET-snap-1");
+        ledgerService.refundStake(1L, new BigDecimal("20"), "BET-snap-2");
+
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(before.add(new BigDecimal("105")));
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(ledgerRepository.sumBalanceByCustomerId(1L));
+    }
+
+    @Test
+    void bulkPostWritesEveryEntry() {
+        BigDecimal before = ledgerService.getBalance(1L);
+        long entriesBefore = ledgerRepository.count();
+        List<LedgerPosting> postings = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            postings.add(LedgerPosting.payout(1L, new BigDecimal("1.50"), "BET-bulk-" + i));
+        }
+
+        ledgerService.postAll(postings);
+
+        assertThat(ledgerRepository.count()).isEqualTo(entriesBefore + 2000);
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(before.add(new BigDecimal("3000")));
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(ledgerRepository.sumBalanceByCustomerId(1L));
+    }
+
+    @Test
+    void concurrentDebitsNeverOverdraw() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Concurrent Debit Customer");
+        Long customerId = customerRepository.save(customer).getId();
+        ledgerService.creditPayout(customerId, new BigDecimal("100"), "SEED-" + customerId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger debited = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String reference = "BET-conc-" + customerId + "-" + i;
+            futures.add(executor.submit(() -> {
+                try {
+                    ledgerService.debitStake(customerId, new BigDecimal("15"), reference);
+                    debited.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    refused.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(debited.get()).isEqualTo(6);  // 100 / 15 = 6.67
+        assertThat(refused.get()).isEqualTo(34);
+        assertThat(ledgerService.getBalance(customerId)).isEqualByComparingTo("10");
+        assertThat(ledgerRepository.sumBalanceByCustomerId(customerId)).isEqualByComparingTo("10");
+    }
+}
@@ -0,0 +1,37 @@
+package com.shotaroi.sportsbook.ledger.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletCacheTest {
+
+    private final WalletCache cache = new WalletCache();
+
+    @Test
+    void addAfterCommit_withoutTransaction_isImmediate() {
+        cache.addAfterCommit(List.of(1L, 2L), "SEK");
+
+        assertTrue(cache.contains(1L, "SEK"));
+        assertTrue(cache.contains(2L, "SEK"));
+        assertFalse(cache.contains(1L, "EUR"));
+    }
+
+    @Test
+    void addAfterCommit_isDeferredUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.addAfterCommit(List.of(1L), "SEK");
+            assertFalse(cache.contains(1L, "SEK"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(cache.contains(1L, "SEK"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.shotaroi.sportsbook.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.entity.Customer;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.betting.repository.CustomerRepository;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.risk.dto.ExposureContentionDto;
+import com.shotaroi.sportsbook.risk.service.ExposureContentionTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness: drives POST /api/bets over real HTTP at a configurable concurrency and
+ * event/selection skew, then settles every event through the admin endpoint, and logs
+ * latency percentiles, throughput and optimistic-lock retries. Excluded from the default
+ * build; run with {@code mvn -Pload-test test} (knobs in the pom's load-test profile).
+ */
+@Tag("load")
+class BetPlacementLoadTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BetPlacementLoadTest.class);
+    private static final String ADMIN_AUTH = "Basic " + Base64.getEncoder().encodeToString("admin:admin-secret".getBytes());
+    private static final String[] SELECTIONS = {"HOME", "DRAW", "AWAY"};
+
+    private final int bets = Integer.getInteger("load.bets", 5000);
+    private final int warmup = Integer.getInteger("load.warmup", 500);
+    private final int concurrency = Integer.getInteger("load.concurrency", 32);
+    private final int events = Integer.getInteger("load.events", 20);
+    private final int customers = Integer.getInteger("load.customers", 50);
+    // Zipf exponent for event and selection choice: 0 = uniform, 1+ = a few hot selections
+    private final double skew = Double.parseDouble(System.getProperty("load.skew", "1.0"));
+
+    @LocalServerPort
+    int port;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    BetRepository betRepository;
+    @Autowired
+    LedgerService ledgerService;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    ExposureContentionTracker contentionTracker;
+    @Value("${spring.threads.virtual.enabled:false}")
+    boolean virtualThreads;
+
+    private final HttpClient http = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(8)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void placeAndSettle() throws Exception {
+        List<Long> customerIds = seedCustomers();
+        String token = token(customerIds.get(0));
+        double[] eventCdf = zipfCdf(events, skew);
+        double[] selectionCdf = zipfCdf(SELECTIONS.length, skew);
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+
+        // Warm-up (not measured): JIT, connection pool, limit cache
+        run(warmup, i -> placeBet(token, runId, "w" + i, customerIds, eventCdf, selectionCdf), new long[warmup], new Outcomes());
+
+        // Only OPTIMISTIC reservation mode retries; the other modes report 0
+        double retriesBefore = optimisticRetries();
+        long exhaustedBefore = optimisticExhausted();
+        long[] latencies = new long[bets];
+        Outcomes outcomes = new Outcomes();
+        long start = System.nanoTime();
+        run(bets, i -> placeBet(token, runId, "b" + i, customerIds, eventCdf, selectionCdf), latencies, outcomes);
+        long placementNanos = System.nanoTime() - start;
+        double retries = optimisticRetries() - retriesBefore;
+        long exhausted = optimisticExhausted() - exhaustedBefore;
+
+        // Settle every event of this run
+        long settleStart = System.nanoTime();
+        long[] settleLatencies = new long[events];
+        Outcomes settleOutcomes = new Outcomes();
+        run(events, i -> settle(runId, i), settleLatencies, settleOutcomes);
+        long settleNanos = System.nanoTime() - settleStart;
+        long settledBets = outcomes.accepted.get();
+
+        log.info("""
+
+                === Bet placement: {} bets, concurrency={}, events={}, customers={}, skew={}, server threads={} ===
+                throughput   {} bets/s
+                latency ms   p50={} p99={} p999={} max={}
+                decisions    accepted={} rejected={} shed={} errors={}
+                optimistic retries {} ({} per accepted bet), gave up after max retries {}
+                === Settlement: {} events, {} accepted bets ===
+                wall time    {} ms ({} bets/s)
+                latency ms   p50={} p99={} max={}  errors={}
+                """,
+                bets, concurrency, events, customers, skew, virtualThreads ? "virtual" : "platform",
+                String.format("%.0f", bets / (placementNanos / 1e9)),
+                ms(percentile(latencies, 50)), ms(percentile(latencies, 99)), ms(percentile(latencies, 99.9)),
+                ms(percentile(latencies, 100)),
+                outcomes.accepted, outcomes.rejected, outcomes.shed, outcomes.errors,
+                String.format("%.0f", retries), String.format("%.3f", retries / Math.max(1, outcomes.accepted.get())),
+                exhausted,
+                events, settledBets,
+                settleNanos / 1_000_000, String.format("%.0f", settledBets / (settleNanos / 1e9)),
+                ms(percentile(settleLatencies, 50)), ms(percentile(settleLatencies, 99)),
+                ms(percentile(settleLatencies, 100)), settleOutcomes.errors);
+
+        assertThat(outcomes.accepted.get() + outcomes.rejected.get() + outcomes.shed.get() + outcomes.errors.get())
+                .isEqualTo(bets);
+        assertThat(settleOutcomes.errors.get()).isZero();
+        for (int e = 0; e < events; e++) {
+            assertThat(betRepository.countByEventIdAndStatus(eventId(runId, e), BetStatus.PLACED)).isZero();
+        }
+    }
+
+    private Outcome placeBet(String token, String runId, String key, List<Long> customerIds,
+                             double[] eventCdf, double[] selectionCdf) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = """
+                {"customerId": %d, "eventId": "%s", "marketType": "MATCH_WINNER", "selection": "%s", "odds": %s, "stake": %d}
+                """.formatted(
+                customerIds.get(random.nextInt(customerIds.size())),
+                eventId(runId, pick(eventCdf, random)),
+                SELECTIONS[pick(selectionCdf, random)],
+                String.format(Locale.ROOT, "%.2f", 1.2 + random.nextDouble() * 4),
+                1 + random.nextInt(50));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/bets"))
+                .header("Authorization", "Bearer " + token)
+                .header("Idempotency-Key", runId + "-" + key)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 503) {
+            return Outcome.SHED;  // refused by the web bulkhead
+        }
+        if (response.statusCode() != 200) {
+            return Outcome.ERROR;
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        return "REJECT".equals(json.path("decision").asText()) ? Outcome.REJECTED : Outcome.ACCEPTED;
+    }
+
+    private Outcome settle(String runId, int event) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/admin/events/" + eventId(runId, event) + "/result"))
+                .header("Authorization", ADMIN_AUTH)
+                .header("Idempotency-Key", runId + "-result-" + event)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"winningSelection\": \"" + SELECTIONS[event % SELECTIONS.length] + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? Outcome.ACCEPTED : Outcome.ERROR;
+    }
+
+    /** Run count calls on the concurrency pool, recording each call's latency in nanos. */
+    private void run(int count, Call call, long[] latencies, Outcomes outcomes) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    long t0 = System.nanoTime();
+                    Outcome outcome;
+                    try {
+                        outcome = call.run(n);
+                    } catch (Exception e) {
+                        outcome = Outcome.ERROR;
+                    }
+                    latencies[n] = System.nanoTime() - t0;
+                    outcomes.record(outcome);
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(10, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<Long> seedCustomers() {
+        List<Long> ids = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            Customer customer = new Customer();
+            customer.setName("Load Customer " + i);
+            Long id = customerRepository.save(customer).getId();
+            ledgerService.creditPayout(id, new BigDecimal("10000000"), "LOAD-SEED-" + id);
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private String token(Long customerId) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/auth/token"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"customerId\": " + customerId + "}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private double optimisticRetries() {
+        return meterRegistry.find("sportsbook.exposure.optimistic.retries").counters().stream()
+                .mapToDouble(Counter::count).sum();
+    }
+
+    /** Placements that failed with OptimisticLockException, summed over the tracked keys. */
+    private long optimisticExhausted() {
+        return contentionTracker.top(Integer.MAX_VALUE).stream().mapToLong(ExposureContentionDto::exhausted).sum();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String eventId(String runId, int event) {
+        return "load-" + runId + "-" + event;
+    }
+
+    /** Cumulative Zipf(s) distribution over n ranks; s = 0 is uniform. */
+    private static double[] zipfCdf(int n, double s) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1 / Math.pow(k + 1, s);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= total;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, Random random) {
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(i >= 0 ? i : -i - 1, cdf.length - 1);
+    }
+
+    private static long percentile(long[] values, double p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1e6);
+    }
+
+    private enum Outcome { ACCEPTED, REJECTED, SHED, ERROR }
+
+    private static final class Outcomes {
+        final AtomicLong accepted = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicInteger shed = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+
+        void record(Outcome outcome) {
+            switch (outcome) {
+                case ACCEPTED -> accepted.incrementAndGet();
+                case REJECTED -> rejected.incrementAndGet();
+                case SHED -> shed.incrementAndGet();
+                case ERROR -> errors.incrementAndGet();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Outcome run(int n) throws Exception;
+    }
+}
@@ -0,0 +1,97 @@
+package com.shotaroi.sportsbook.risk;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.dto.ReservationResult;
+import com.shotaroi.sportsbook.risk.dto.RiskLimitRequest;
+import com.shotaroi.sportsbook.risk.repository.ExposureRepository;
+import com.shotaroi.sportsbook.risk.service.RiskLimitService;
+import com.shotaroi.sportsbook.risk.service.RiskReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ATOMIC_SQL mode: the guarded upsert never lets reserved liability exceed the limit.
+ */
+@TestPropertySource(properties = "risk.reservation-mode=ATOMIC_SQL")
+class AtomicExposureReservationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    RiskReservationService riskReservationService;
+    @Autowired
+    RiskLimitService riskLimitService;
+    @Autowired
+    ExposureRepository exposureRepository;
+
+    @Test
+    void concurrentReservations_stopExactlyAtLimit() throws Exception {
+        String eventId = "evt-atomic";
+        riskLimitService.setLimit(new RiskLimitRequest(
+                "EVENT_MARKET_SELECTION", eventId + "|MATCH_WINNER|HOME", new BigDecimal("500"), null));
+
+        int threads = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(executor.submit(() -> {
+                ReservationResult result = riskReservationService.reserveLiability(
+                        eventId, MarketType.MATCH_WINNER, Selection.HOME, new BigDecimal("85"));
+                if (result.reserved()) {
+                    accepted.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(accepted.get()).isEqualTo(5);  // 500 / 85 = 5.88
+        var exposure = exposureRepository.findByEventIdAndMarketTypeAndSelection(eventId, MarketType.MATCH_WINNER, Selection.HOME);
+        assertThat(exposure).isPresent();
+        assertThat(exposure.get().getReservedLiability()).isEqualByComparingTo("425");
+    }
+
+    @Test
+    void rejectedReservation_reportsRemainingHeadroom() {
+        String eventId = "evt-atomic-headroom";
+        riskLimitService.setLimit(new RiskLimitRequest(
+                "EVENT_MARKET_SELECTION", eventId + "|MATCH_WINNER|AWAY", new BigDecimal("100"), null));
+
+        riskReservationService.reserveLiability(eventId, MarketType.MATCH_WINNER, Selection.AWAY, new BigDecimal("70"));
+        ReservationResult result = riskReservationService.reserveLiability(
+                eventId, MarketType.MATCH_WINNER, Selection.AWAY, new BigDecimal("40"));
+
+        assertThat(result.reserved()).isFalse();
+        assertThat(result.remainingHeadroom()).isEqualByComparingTo("30");
+    }
+
+    @Test
+    void releaseSettled_decrementsEachSelectionOnceAndClampsAtZero() {
+        String eventId = "evt-atomic-settle";
+        riskReservationService.reserveLiability(eventId, MarketType.MATCH_WINNER, Selection.HOME, new BigDecimal("120"));
+        riskReservationService.reserveLiability(eventId, MarketType.MATCH_WINNER, Selection.AWAY, new BigDecimal("80"));
+
+        riskReservationService.releaseSettled(Map.of(
+                new ExposureKey(eventId, MarketType.MATCH_WINNER, Selection.HOME), new BigDecimal("50"),
+                new ExposureKey(eventId, MarketType.MATCH_WINNER, Selection.AWAY), new BigDecimal("95")));
+
+        assertThat(riskReservationService.getReservedLiability(eventId, MarketType.MATCH_WINNER, Selection.HOME))
+                .isEqualByComparingTo("70");
+        assertThat(riskReservationService.getReservedLiability(eventId, MarketType.MATCH_WINNER, Selection.AWAY))
+                .isEqualByComparingTo("0");
+    }
+}
@@ -0,0 +1,54 @@
+package com.shotaroi.sportsbook.risk;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.service.ExposureBook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IN_MEMORY mode: a restart after a lost flush rebuilds the book, and the exposures table,
+ * from the PLACED bets.
+ */
+@TestPropertySource(properties = "risk.reservation-mode=IN_MEMORY")
+class InMemoryExposureRebuildTest extends AbstractIntegrationTest {
+
+    @Autowired
+    BetService betService;
+    @Autowired
+    ExposureBook exposureBook;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuild_restoresReservationsMissingFromExposures() {
+        String eventId = "evt-book-rebuild";
+        ExposureKey key = new ExposureKey(eventId, MarketType.MATCH_WINNER, Selection.HOME);
+        for (int i = 0; i < 2; i++) {
+            betService.placeBet(new PlaceBetRequest(1L, eventId, MarketType.MATCH_WINNER, Selection.HOME,
+                    new BigDecimal("2.5"), new BigDecimal("10")), "book-rebuild-" + i);
+        }
+        exposureBook.flush();
+
+        // Simulate a crash before the second reservation was flushed
+        jdbcTemplate.update("UPDATE exposures SET reserved_liability = 15 WHERE event_id = ?", eventId);
+        exposureBook.release(key, new BigDecimal("15"));
+
+        exposureBook.afterSingletonsInstantiated();
+
+        assertThat(exposureBook.getReservedLiability(key)).isEqualByComparingTo("30");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT reserved_liability FROM exposures WHERE event_id = ?", BigDecimal.class, eventId))
+                .isEqualByComparingTo("30");
+    }
+}
@@ -0,0 +1,83 @@
+package com.shotaroi.sportsbook.risk;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.risk.dto.ExposureContentionDto;
+import com.shotaroi.sportsbook.risk.service.ExposureContentionTracker;
+import com.shotaroi.sportsbook.risk.service.RiskReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OPTIMISTIC mode: concurrent reservations on one key conflict on the version check inside
+ * the attempt, are retried until all succeed, and the conflicts reach the contention tracker
+ * and the retry/attempt meters.
+ */
+@TestPropertySource(properties = "risk.reservation-mode=OPTIMISTIC")
+class OptimisticExposureReservationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    RiskReservationService riskReservationService;
+    @Autowired
+    ExposureContentionTracker contentionTracker;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentReservations_retryConflictsAndRecordThem() throws Exception {
+        String eventId = "evt-optimistic";
+        double retriesBefore = meterRegistry.get("sportsbook.exposure.optimistic.retries")
+                .tag("operation", "reserve").counter().count();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                // Hold the updated row until commit, so the others' version checks fail and retry
+                transactionTemplate.executeWithoutResult(status -> {
+                    riskReservationService.reserveLiability(eventId, MarketType.MATCH_WINNER, Selection.HOME, new BigDecimal("10"));
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(riskReservationService.getReservedLiability(eventId, MarketType.MATCH_WINNER, Selection.HOME))
+                .isEqualByComparingTo("80");
+        ExposureContentionDto contention = contentionTracker.top(100).stream()
+                .filter(c -> c.eventId().equals(eventId))
+                .findFirst()
+                .orElseThrow();
+        assertThat(contention.conflicts()).isPositive();
+        assertThat(contention.exhausted()).isZero();
+        assertThat(meterRegistry.get("sportsbook.exposure.optimistic.retries")
+                .tag("operation", "reserve").counter().count()).isGreaterThan(retriesBefore);
+        assertThat(meterRegistry.get("sportsbook.exposure.optimistic.attempts")
+                .tag("operation", "reserve").summary().max()).isGreaterThan(1);
+    }
+}
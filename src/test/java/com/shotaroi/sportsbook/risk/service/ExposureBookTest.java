@@ -0,0 +1,64 @@
+package com.shotaroi.sportsbook.risk.service;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.risk.config.RiskProperties;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.dto.ReservationResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExposureBookTest {
+
+    private static final ExposureKey HOME = new ExposureKey("evt-1", MarketType.MATCH_WINNER, Selection.HOME);
+
+    private final ExposureBook book = new ExposureBook(null, null, new RiskProperties(
+            RiskProperties.ReservationMode.IN_MEMORY, new RiskProperties.Book(200, 500),
+            new RiskProperties.Contention(10, 3600, 15000)));
+
+    @Test
+    void tryReserve_rejectsAndReportsHeadroomWhenLimitWouldBeExceeded() {
+        assertTrue(book.tryReserve(HOME, new BigDecimal("85"), new BigDecimal("100")).reserved());
+
+        ReservationResult second = book.tryReserve(HOME, new BigDecimal("85"), new BigDecimal("100"));
+        assertFalse(second.reserved());
+        assertEquals(new BigDecimal("15.00"), second.remainingHeadroom());
+        assertEquals(new BigDecimal("85.00"), book.getReservedLiability(HOME));
+    }
+
+    @Test
+    void release_clampsAtZero() {
+        book.tryReserve(HOME, new BigDecimal("50"), null);
+        book.release(HOME, new BigDecimal("80"));
+        assertEquals(new BigDecimal("0.00"), book.getReservedLiability(HOME));
+    }
+
+    @Test
+    void concurrentReservations_neverExceedLimit() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(executor.submit(() -> {
+                if (book.tryReserve(HOME, new BigDecimal("85"), new BigDecimal("500")).reserved()) {
+                    accepted.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(5, accepted.get());  // 500 / 85 = 5.88
+        assertEquals(new BigDecimal("425.00"), book.getReservedLiability(HOME));
+    }
+}
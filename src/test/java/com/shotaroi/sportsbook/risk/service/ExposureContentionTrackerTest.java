@@ -0,0 +1,60 @@
+package com.shotaroi.sportsbook.risk.service;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.risk.config.RiskProperties;
+import com.shotaroi.sportsbook.risk.dto.ExposureContentionDto;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExposureContentionTrackerTest {
+
+    private static final ExposureKey HOME = new ExposureKey("evt-1", MarketType.MATCH_WINNER, Selection.HOME);
+    private static final ExposureKey AWAY = new ExposureKey("evt-1", MarketType.MATCH_WINNER, Selection.AWAY);
+    private static final ExposureKey DRAW = new ExposureKey("evt-2", MarketType.MATCH_WINNER, Selection.DRAW);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ExposureContentionTracker tracker = new ExposureContentionTracker(new RiskProperties(
+            RiskProperties.ReservationMode.OPTIMISTIC, new RiskProperties.Book(200, 500),
+            new RiskProperties.Contention(2, 3600, 15000)), registry);
+
+    @Test
+    void top_ordersByConflictsAndCountsExhaustedUpdates() {
+        tracker.recordConflict(AWAY);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordConflict(HOME);
+        }
+        tracker.recordExhausted(HOME);
+
+        List<ExposureContentionDto> top = tracker.top(10);
+        assertEquals(2, top.size());
+        assertEquals(Selection.HOME, top.get(0).selection());
+        assertEquals(4, top.get(0).conflicts());
+        assertEquals(1, top.get(0).exhausted());
+        assertEquals(Selection.AWAY, top.get(1).selection());
+    }
+
+    @Test
+    void refresh_publishesOnlyTopNKeysAsGauges() {
+        tracker.recordConflict(HOME);
+        tracker.recordConflict(HOME);
+        tracker.recordConflict(AWAY);
+        tracker.recordConflict(AWAY);
+        tracker.recordConflict(AWAY);
+        tracker.recordConflict(DRAW);
+
+        tracker.refresh();
+
+        assertEquals(2, registry.find("sportsbook.exposure.contention.conflicts").gauges().size());
+        assertEquals(3.0, registry.get("sportsbook.exposure.contention.conflicts")
+                .tag("selection", "AWAY").gauge().value());
+        assertNull(registry.find("sportsbook.exposure.contention.conflicts").tag("event", "evt-2").gauge());
+        assertEquals(3.0, registry.get("sportsbook.exposure.contention.keys").gauge().value());
+    }
+}
@@ -0,0 +1,98 @@
+package com.shotaroi.sportsbook.risk.service;
+
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.risk.dto.ExposureKey;
+import com.shotaroi.sportsbook.risk.dto.RiskLimitRequest;
+import com.shotaroi.sportsbook.risk.entity.Limit;
+import com.shotaroi.sportsbook.risk.repository.LimitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitCacheTest {
+
+    private static final ExposureKey HOME = new ExposureKey("evt-1", MarketType.MATCH_WINNER, Selection.HOME);
+
+    private final List<Limit> rows = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LimitRepository repository = (LimitRepository) Proxy.newProxyInstance(
+            LimitRepository.class.getClassLoader(), new Class<?>[]{LimitRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findAll" -> {
+                    loads.incrementAndGet();
+                    yield List.copyOf(rows);
+                }
+                case "findFirstByScopeTypeAndScopeId" -> Optional.empty();
+                case "save" -> {
+                    rows.add((Limit) args[0]);
+                    yield args[0];
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    private final LimitCache cache = new LimitCache(repository);
+    private final RiskLimitService limitService = new RiskLimitService(repository, cache);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resolve_loadsOnceAndServesFromSnapshot() {
+        rows.add(limit("EVENT", "evt-1", "500"));
+
+        assertEquals(0, new BigDecimal("500").compareTo(cache.resolve(HOME).maxReservedLiability()));
+        cache.resolve(HOME);
+        cache.resolve(new ExposureKey("evt-2", MarketType.MATCH_WINNER, Selection.AWAY));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void setLimit_invalidatesAfterCommit() {
+        cache.resolve(HOME);
+        TransactionSynchronizationManager.initSynchronization();
+
+        limitService.setLimit(new RiskLimitRequest("EVENT", "evt-1", new BigDecimal("300"), null));
+        assertNull(cache.resolve(HOME).maxReservedLiability());  // not committed yet: old snapshot
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(0, new BigDecimal("300").compareTo(cache.resolve(HOME).maxReservedLiability()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void setLimit_rolledBack_keepsSnapshot() {
+        cache.resolve(HOME);
+        TransactionSynchronizationManager.initSynchronization();
+
+        limitService.setLimit(new RiskLimitRequest("EVENT", "evt-1", new BigDecimal("300"), null));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        cache.resolve(HOME);
+        assertEquals(1, loads.get());
+    }
+
+    private static Limit limit(String scopeType, String scopeId, String maxReservedLiability) {
+        Limit limit = new Limit();
+        limit.setScopeType(scopeType);
+        limit.setScopeId(scopeId);
+        limit.setMaxReservedLiability(new BigDecimal(maxReservedLiability));
+        return limit;
+    }
+}
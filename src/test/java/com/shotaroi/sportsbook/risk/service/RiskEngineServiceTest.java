@@ -24,6 +24,8 @@ class RiskEngineServiceTest extends AbstractIntegrationTest {
     ExposureRepository exposureRepository;
     @Autowired
     LimitRepository limitRepository;
+    @Autowired
+    LimitCache limitCache;
 
     private static final String EVENT_ID = "evt-1";
 
@@ -31,6 +33,8 @@ class RiskEngineServiceTest extends AbstractIntegrationTest {
     void setUp() {
         limitRepository.deleteAll();
         exposureRepository.deleteAll();
+        // Limits are written straight to the repository below, bypassing RiskLimitService
+        limitCache.invalidate();
     }
 
     @Test
@@ -0,0 +1,139 @@
+package com.shotaroi.sportsbook.settlement;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.domain.SettlementJobStatus;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultRequest;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultRequest.EventResultItem;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultResponse;
+import com.shotaroi.sportsbook.settlement.dto.PostResultRequest;
+import com.shotaroi.sportsbook.settlement.dto.PostResultResponse;
+import com.shotaroi.sportsbook.settlement.dto.SettlementJobResponse;
+import com.shotaroi.sportsbook.settlement.entity.SettlementJob;
+import com.shotaroi.sportsbook.settlement.repository.SettlementJobRepository;
+import com.shotaroi.sportsbook.settlement.service.ResultBatchService;
+import com.shotaroi.sportsbook.settlement.service.SettlementJobService;
+import com.shotaroi.sportsbook.settlement.service.SettlementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Async mode: posting a result only queues a job; a worker settles it and status reports progress.
+ */
+@TestPropertySource(properties = {"settlement.async.enabled=true", "settlement.async.poll-interval-ms=50"})
+class AsyncSettlementTest extends AbstractIntegrationTest {
+
+    @Autowired
+    SettlementService settlementService;
+    @Autowired
+    SettlementJobService settlementJobService;
+    @Autowired
+    BetService betService;
+    @Autowired
+    SettlementJobRepository settlementJobRepository;
+    @Autowired
+    ResultBatchService resultBatchService;
+
+    @Test
+    void postResult_queuesJob_workerSettlesIt() throws Exception {
+        String eventId = "evt-async";
+        for (int i = 0; i < 3; i++) {
+            betService.placeBet(new PlaceBetRequest(1L, eventId, MarketType.MATCH_WINNER, Selection.AWAY,
+                    new BigDecimal("2.5"), new BigDecimal("10")), "async-bet-" + i);
+        }
+
+        PostResultResponse response = settlementService.postResult(eventId, new PostResultRequest(Selection.AWAY), "async-result-1");
+        assertThat(response.jobId()).isNotNull();
+
+        SettlementJobResponse status = settlementJobService.getStatus(eventId);
+        for (int i = 0; i < 100 && status.status() != SettlementJobStatus.DONE; i++) {
+            Thread.sleep(100);
+            status = settlementJobService.getStatus(eventId);
+        }
+        assertThat(status.status()).isEqualTo(SettlementJobStatus.DONE);
+        assertThat(status.betsSettled()).isEqualTo(3);
+        assertThat(status.betsRemaining()).isZero();
+    }
+
+    @Test
+    void batch_queuesOneJobPerEvent() throws Exception {
+        for (String eventId : List.of("evt-async-batch-1", "evt-async-batch-2")) {
+            betService.placeBet(new PlaceBetRequest(1L, eventId, MarketType.MATCH_WINNER, Selection.HOME,
+                    new BigDecimal("2.0"), new BigDecimal("10")), "async-batch-bet-" + eventId);
+        }
+
+        BatchPostResultResponse response = resultBatchService.postResults(new BatchPostResultRequest(List.of(
+                new EventResultItem("evt-async-batch-1", Selection.HOME),
+                new EventResultItem("evt-async-batch-2", Selection.AWAY))));
+        assertThat(response.settled()).isEmpty();
+        assertThat(response.failed()).isEmpty();
+        assertThat(response.queued()).containsOnlyKeys("evt-async-batch-1", "evt-async-batch-2");
+
+        for (String eventId : response.queued().keySet()) {
+            SettlementJobResponse status = settlementJobService.getStatus(eventId);
+            for (int i = 0; i < 100 && status.status() != SettlementJobStatus.DONE; i++) {
+                Thread.sleep(100);
+                status = settlementJobService.getStatus(eventId);
+            }
+            assertThat(status.status()).isEqualTo(SettlementJobStatus.DONE);
+            assertThat(status.betsRemaining()).isZero();
+        }
+    }
+
+    @Test
+    void postResult_requeuesFailedJob() throws Exception {
+        String eventId = "evt-async-failed";
+        betService.placeBet(new PlaceBetRequest(1L, eventId, MarketType.MATCH_WINNER, Selection.HOME,
+                new BigDecimal("2.0"), new BigDecimal("10")), "async-failed-bet");
+        SettlementJob failed = new SettlementJob();
+        failed.setEventId(eventId);
+        failed.setWinningSelection(Selection.HOME);
+        failed.setStatus(SettlementJobStatus.FAILED);
+        failed.setAttempts(5);
+        failed.setLastError("boom");
+        Long jobId = settlementJobRepository.save(failed).getId();
+
+        PostResultResponse response = settlementService.postResult(eventId, new PostResultRequest(Selection.HOME), "async-failed-result-2");
+        assertThat(response.jobId()).isEqualTo(jobId);
+
+        SettlementJobResponse status = settlementJobService.getStatus(eventId);
+        for (int i = 0; i < 100 && status.status() != SettlementJobStatus.DONE; i++) {
+            Thread.sleep(100);
+            status = settlementJobService.getStatus(eventId);
+        }
+        assertThat(status.status()).isEqualTo(SettlementJobStatus.DONE);
+        assertThat(status.attempts()).isEqualTo(1);
+        assertThat(status.betsRemaining()).isZero();
+    }
+
+    @Test
+    void completeAndFail_onlyApplyForTheWorkerHoldingTheLease() {
+        SettlementJob running = new SettlementJob();
+        running.setEventId("evt-async-lease");
+        running.setStatus(SettlementJobStatus.RUNNING);
+        running.setAttempts(1);
+        running.setLockedBy("worker-b");
+        running.setLockedUntil(Instant.now().plusSeconds(300));
+        Long jobId = settlementJobRepository.save(running).getId();
+
+        // worker-a's lease expired and worker-b reclaimed the job: worker-a's late results are dropped
+        assertThat(settlementJobService.fail(jobId, "worker-a", "late failure")).isFalse();
+        assertThat(settlementJobService.complete(jobId, "worker-a")).isFalse();
+        assertThat(settlementJobService.renewLease(jobId, "worker-a")).isFalse();
+        assertThat(settlementJobService.getStatus("evt-async-lease").status()).isEqualTo(SettlementJobStatus.RUNNING);
+
+        assertThat(settlementJobService.renewLease(jobId, "worker-b")).isTrue();
+        assertThat(settlementJobService.complete(jobId, "worker-b")).isTrue();
+        assertThat(settlementJobService.getStatus("evt-async-lease").status()).isEqualTo(SettlementJobStatus.DONE);
+    }
+}
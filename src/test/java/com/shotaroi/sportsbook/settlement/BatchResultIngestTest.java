@@ -0,0 +1,52 @@
+package com.shotaroi.sportsbook.settlement;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultRequest;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultRequest.EventResultItem;
+import com.shotaroi.sportsbook.settlement.dto.BatchPostResultResponse;
+import com.shotaroi.sportsbook.settlement.service.ResultBatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchResultIngestTest extends AbstractIntegrationTest {
+
+    @Autowired
+    ResultBatchService resultBatchService;
+    @Autowired
+    BetService betService;
+    @Autowired
+    BetRepository betRepository;
+
+    @Test
+    void batch_settlesEachEventOnce_andSkipsRecordedResults() {
+        for (String eventId : List.of("evt-batch-1", "evt-batch-2")) {
+            betService.placeBet(new PlaceBetRequest(1L, eventId, MarketType.MATCH_WINNER, Selection.DRAW,
+                    new BigDecimal("3.0"), new BigDecimal("10")), "batch-bet-" + eventId);
+        }
+        BatchPostResultRequest request = new BatchPostResultRequest(List.of(
+                new EventResultItem("evt-batch-1", Selection.DRAW),
+                new EventResultItem("evt-batch-2", Selection.HOME),
+                new EventResultItem("evt-batch-1", Selection.DRAW)));
+
+        BatchPostResultResponse first = resultBatchService.postResults(request);
+        assertThat(first.settled()).containsExactlyInAnyOrder("evt-batch-1", "evt-batch-2");
+        assertThat(first.failed()).isEmpty();
+        assertThat(betRepository.findByEventIdAndStatus("evt-batch-1", BetStatus.SETTLED_WON)).hasSize(1);
+        assertThat(betRepository.findByEventIdAndStatus("evt-batch-2", BetStatus.SETTLED_LOST)).hasSize(1);
+
+        BatchPostResultResponse replay = resultBatchService.postResults(request);
+        assertThat(replay.settled()).isEmpty();
+        assertThat(replay.skipped()).containsExactlyInAnyOrder("evt-batch-1", "evt-batch-2");
+    }
+}
@@ -0,0 +1,66 @@
+package com.shotaroi.sportsbook.settlement;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.ledger.repository.LedgerEntryRepository;
+import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.risk.service.RiskReservationService;
+import com.shotaroi.sportsbook.settlement.dto.PostResultRequest;
+import com.shotaroi.sportsbook.settlement.service.SettlementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BULK mode: chunked settlement gives the same balances, statuses and exposure as per-bet.
+ */
+@TestPropertySource(properties = {"settlement.mode=BULK", "settlement.chunk-size=2"})
+class BulkSettlementTest extends AbstractIntegrationTest {
+
+    @Autowired
+    BetService betService;
+    @Autowired
+    SettlementService settlementService;
+    @Autowired
+    BetRepository betRepository;
+    @Autowired
+    LedgerService ledgerService;
+    @Autowired
+    LedgerEntryRepository ledgerRepository;
+    @Autowired
+    RiskReservationService riskReservationService;
+
+    @Test
+    void settleEvent_inChunks_creditsWinnersAndReleasesExposure() {
+        String eventId = "evt-bulk";
+        // 3 x HOME @ 2.0 stake 10 (win 20 each), 2 x AWAY @ 3.0 stake 10
+        for (int i = 0; i < 5; i++) {
+            Selection selection = i < 3 ? Selection.HOME : Selection.AWAY;
+            BigDecimal odds = i < 3 ? new BigDecimal("2.0") : new BigDecimal("3.0");
+            betService.placeBet(new PlaceBetRequest(1L, eventId, MarketType.MATCH_WINNER, selection, odds,
+                    new BigDecimal("10")), "bulk-bet-" + i);
+        }
+        BigDecimal before = ledgerService.getBalance(1L);
+
+        settlementService.postResult(eventId, new PostResultRequest(Selection.HOME), "bulk-result-1");
+
+        assertThat(betRepository.findByEventIdAndStatus(eventId, BetStatus.SETTLED_WON)).hasSize(3);
+        assertThat(betRepository.findByEventIdAndStatus(eventId, BetStatus.SETTLED_LOST)).hasSize(2);
+        assertThat(betRepository.findByEventIdAndStatus(eventId, BetStatus.PLACED)).isEmpty();
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(before.add(new BigDecimal("60")));
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(ledgerRepository.sumBalanceByCustomerId(1L));
+        assertThat(riskReservationService.getReservedLiability(eventId, MarketType.MATCH_WINNER, Selection.HOME))
+                .isEqualByComparingTo("0");
+        assertThat(riskReservationService.getReservedLiability(eventId, MarketType.MATCH_WINNER, Selection.AWAY))
+                .isEqualByComparingTo("0");
+    }
+}
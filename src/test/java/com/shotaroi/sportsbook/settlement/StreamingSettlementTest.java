@@ -0,0 +1,102 @@
+package com.shotaroi.sportsbook.settlement;
+
+import com.shotaroi.sportsbook.AbstractIntegrationTest;
+import com.shotaroi.sportsbook.betting.dto.PlaceBetRequest;
+import com.shotaroi.sportsbook.betting.repository.BetRepository;
+import com.shotaroi.sportsbook.betting.service.BetService;
+import com.shotaroi.sportsbook.common.domain.BetStatus;
+import com.shotaroi.sportsbook.common.domain.MarketType;
+import com.shotaroi.sportsbook.common.domain.Selection;
+import com.shotaroi.sportsbook.common.domain.SettlementStatus;
+import com.shotaroi.sportsbook.ledger.service.LedgerService;
+import com.shotaroi.sportsbook.settlement.dto.PostResultRequest;
+import com.shotaroi.sportsbook.settlement.entity.EventResult;
+import com.shotaroi.sportsbook.settlement.repository.EventResultRepository;
+import com.shotaroi.sportsbook.settlement.service.BulkSettlementProcessor;
+import com.shotaroi.sportsbook.settlement.service.EventResultRecorder;
+import com.shotaroi.sportsbook.settlement.service.SettlementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * STREAMING mode: an interrupted run is resumed under the same batch id without double credit.
+ */
+@TestPropertySource(properties = {"settlement.mode=STREAMING", "settlement.chunk-size=2"})
+class StreamingSettlementTest extends AbstractIntegrationTest {
+
+    @Autowired
+    BetService betService;
+    @Autowired
+    SettlementService settlementService;
+    @Autowired
+    EventResultRecorder eventResultRecorder;
+    @Autowired
+    BulkSettlementProcessor bulkSettlementProcessor;
+    @Autowired
+    EventResultRepository eventResultRepository;
+    @Autowired
+    BetRepository betRepository;
+    @Autowired
+    LedgerService ledgerService;
+
+    @Test
+    void interruptedSettlement_resumesWithSameBatchId() {
+        String eventId = "evt-stream";
+        for (int i = 0; i < 5; i++) {
+            betService.placeBet(new PlaceBetRequest(1L, eventId, MarketType.MATCH_WINNER, Selection.HOME,
+                    new BigDecimal("2.0"), new BigDecimal("10")), "stream-bet-" + i);
+        }
+        BigDecimal before = ledgerService.getBalance(1L);
+
+        // Simulate a run that committed one chunk and then died
+        EventResult opened = eventResultRecorder.open(eventId, null);
+        bulkSettlementProcessor.settleNextChunk(eventId, null, opened.getSettlementBatchId(), 1, 0, 0, 2);
+        assertThat(betRepository.countByEventIdAndStatus(eventId, BetStatus.PLACED)).isEqualTo(3);
+
+        // Posting again resumes with the recorded result (VOID), not the request's selection
+        settlementService.postResult(eventId, new PostResultRequest(Selection.HOME), "stream-result-1");
+
+        EventResult result = eventResultRepository.findByEventId(eventId).orElseThrow();
+        assertThat(result.getStatus()).isEqualTo(SettlementStatus.SETTLED);
+        assertThat(betRepository.countBySettlementBatchId(opened.getSettlementBatchId())).isEqualTo(5);
+        assertThat(betRepository.findByEventIdAndStatus(eventId, BetStatus.SETTLED_VOID)).hasSize(5);
+        assertThat(ledgerService.getBalance(1L)).isEqualByComparingTo(before.add(new BigDecimal("50")));
+    }
+
+    @Test
+    void concurrentOpens_shareOneResult() throws Exception {
+        String eventId = "evt-stream-open";
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<EventResult>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return eventResultRecorder.open(eventId, Selection.HOME);
+            }));
+        }
+        start.countDown();
+        List<EventResult> opened = new ArrayList<>();
+        for (Future<EventResult> f : futures) {
+            opened.add(f.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertThat(opened).extracting(EventResult::getId).containsOnly(opened.get(0).getId());
+        assertThat(opened).extracting(EventResult::getSettlementBatchId).containsOnly(opened.get(0).getSettlementBatchId());
+        assertThat(opened.get(0).getStatus()).isEqualTo(SettlementStatus.SETTLING);
+    }
+}
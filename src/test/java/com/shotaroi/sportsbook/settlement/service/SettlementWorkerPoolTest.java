@@ -0,0 +1,59 @@
+package com.shotaroi.sportsbook.settlement.service;
+
+import com.shotaroi.sportsbook.settlement.config.SettlementProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementWorkerPoolTest {
+
+    private final SettlementWorkerPool pool = new SettlementWorkerPool(new SettlementProperties(
+            SettlementProperties.Mode.PARALLEL, 1000, new SettlementProperties.Parallel(4, true),
+            new SettlementProperties.Batch(4), new SettlementProperties.Async(false, 2, 500, 300, 5, 30)), null);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void runPartitions_runsEveryPartitionBeforeReturning() {
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        pool.runPartitions(4, seen::add);
+        assertEquals(Set.of(0, 1, 2, 3), seen);
+    }
+
+    @Test
+    void runPartitions_rethrowsFailureAfterOtherPartitionsFinish() {
+        AtomicInteger finished = new AtomicInteger();
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> pool.runPartitions(4, p -> {
+            if (p == 2) {
+                throw new IllegalStateException("partition 2 failed");
+            }
+            finished.incrementAndGet();
+        }));
+        assertEquals("partition 2 failed", thrown.getMessage());
+        assertEquals(3, finished.get());
+    }
+
+    @Test
+    void runEach_neverExceedsConcurrencyAndCoversEveryItem() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        pool.runEach(IntStream.range(0, 50).boxed().toList(), 3, item -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            seen.add(item);
+            Thread.yield();
+            inFlight.decrementAndGet();
+        });
+        assertEquals(50, seen.size());
+        assertTrue(maxInFlight.get() <= 3);
+    }
+}